@@ -2,11 +2,12 @@ package com.whoisthespy;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class WhoIsTheSpyApplication {
     public static void main(String[] args) {
         SpringApplication.run(WhoIsTheSpyApplication.class, args);
     }
 }
-
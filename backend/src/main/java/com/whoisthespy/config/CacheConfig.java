@@ -0,0 +1,13 @@
+package com.whoisthespy.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring's cache abstraction. Caches are declared in {@code spring.cache.*}; because
+ * they exist at startup, their hit/miss statistics are published as {@code cache.*} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,33 @@
+package com.whoisthespy.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Bounds JDBC concurrency when {@code app.jdbc.max-concurrency} is positive. Intended for
+ * {@code spring.threads.virtual.enabled=true}, where request and STOMP handling run on virtual
+ * threads and are no longer limited by a platform thread pool.
+ */
+@Configuration
+public class ExecutionModeConfig {
+    
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter(Environment environment) {
+        int maxConcurrency = environment.getProperty("app.jdbc.max-concurrency", Integer.class, 0);
+        long acquireTimeoutMillis = environment.getProperty("app.jdbc.acquire-timeout-ms", Long.class, 30_000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (maxConcurrency > 0 && "dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.whoisthespy.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enables {@code @Timed} on service methods and tracks connected STOMP sessions.
+ */
+@Configuration
+public class MetricsConfig {
+    // Disconnect events may be published more than once per session, so track ids rather than count
+    private final Set<String> connectedSessions = ConcurrentHashMap.newKeySet();
+    
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        Gauge.builder("websocket.sessions", connectedSessions, Set::size)
+            .description("Connected STOMP sessions")
+            .register(meterRegistry);
+    }
+    
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+    
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            connectedSessions.add(sessionId);
+        }
+    }
+    
+    @EventListener
+    public void onSessionDisconnected(SessionDisconnectEvent event) {
+        connectedSessions.remove(event.getSessionId());
+    }
+}
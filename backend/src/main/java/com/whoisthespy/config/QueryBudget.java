@@ -0,0 +1,16 @@
+package com.whoisthespy.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements Hibernate may prepare during one call of the annotated handler.
+ * Enforced by {@link QueryBudgetAspect} according to {@code app.query-budget.mode}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,75 @@
+package com.whoisthespy.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Enforces {@link QueryBudget} on controller handlers. In {@code log} mode every call records the
+ * {@code db.statements} summary, and calls over budget increment {@code db.statements.over.budget}
+ * and log the call sites of the extra statements. In {@code strict} mode, meant for tests, a call
+ * over budget fails with {@link QueryBudgetExceededException} after its handler returns.
+ */
+@Aspect
+@Slf4j
+public class QueryBudgetAspect {
+    public enum Mode {
+        OFF, LOG, STRICT
+    }
+
+    private final Mode mode;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetAspect(Mode mode, MeterRegistry meterRegistry) {
+        this.mode = mode;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(budget)")
+    public Object enforce(ProceedingJoinPoint joinPoint, QueryBudget budget) throws Throwable {
+        if (mode == Mode.OFF) {
+            return joinPoint.proceed();
+        }
+        StatementCounter.Scope scope = StatementCounter.open(budget.value());
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } finally {
+            StatementCounter.close(scope);
+        }
+
+        String endpoint = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+            + joinPoint.getSignature().getName();
+        DistributionSummary.builder("db.statements")
+            .description("SQL statements prepared per handler call")
+            .tag("endpoint", endpoint)
+            .register(meterRegistry)
+            .record(scope.count());
+        if (scope.count() <= scope.budget()) {
+            return result;
+        }
+
+        String message = endpoint + " prepared " + scope.count() + " statements, budget " + scope.budget()
+            + "; over budget: " + String.join(", ", scope.overBudget());
+        if (mode == Mode.STRICT) {
+            throw new QueryBudgetExceededException(message);
+        }
+        Counter.builder("db.statements.over.budget")
+            .description("Handler calls that prepared more SQL statements than their budget")
+            .tag("endpoint", endpoint)
+            .register(meterRegistry)
+            .increment();
+        log.warn(message);
+        return result;
+    }
+
+    public static class QueryBudgetExceededException extends RuntimeException {
+        public QueryBudgetExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.whoisthespy.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Counts Hibernate statements per handler call and checks them against {@link QueryBudget}s.
+ * {@code app.query-budget.mode} is {@code off}, {@code log} (default) or {@code strict}.
+ */
+@Configuration
+public class QueryBudgetConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public QueryBudgetAspect queryBudgetAspect(@Value("${app.query-budget.mode:log}") String mode,
+                                               MeterRegistry meterRegistry) {
+        return new QueryBudgetAspect(QueryBudgetAspect.Mode.valueOf(mode.toUpperCase()), meterRegistry);
+    }
+}
@@ -0,0 +1,85 @@
+package com.whoisthespy.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the statements Hibernate prepares on the current thread while a budget scope is open,
+ * and records where each statement beyond the budget was issued from. Statements outside a scope
+ * (write-behind flushes, scheduled jobs) and plain JDBC are not counted.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+    private static final String APPLICATION_PACKAGE = "com.whoisthespy.";
+    private static final String CONFIG_PACKAGE = "com.whoisthespy.config.";
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = SCOPE.get();
+        if (scope != null && ++scope.count > scope.budget) {
+            scope.overBudget.add(callSite() + ": " + abbreviate(sql));
+        }
+        return sql;
+    }
+
+    /**
+     * Opens a scope on the current thread; the returned scope must be passed to {@link #close}.
+     */
+    static Scope open(int budget) {
+        Scope scope = new Scope(budget, SCOPE.get());
+        SCOPE.set(scope);
+        return scope;
+    }
+
+    static void close(Scope scope) {
+        if (scope.outer != null) {
+            scope.outer.count += scope.count;
+            SCOPE.set(scope.outer);
+        } else {
+            SCOPE.remove();
+        }
+    }
+
+    // The first application frame outside this package, i.e. the service or controller line
+    private static String callSite() {
+        for (StackTraceElement frame : Thread.currentThread().getStackTrace()) {
+            String className = frame.getClassName();
+            if (className.startsWith(APPLICATION_PACKAGE) && !className.startsWith(CONFIG_PACKAGE)
+                    && !className.contains("$$")) {
+                return frame.toString();
+            }
+        }
+        return "unknown";
+    }
+
+    private static String abbreviate(String sql) {
+        String statement = sql.replaceAll("\\s+", " ").trim();
+        return statement.length() > 80 ? statement.substring(0, 80) + "..." : statement;
+    }
+
+    static class Scope {
+        private final int budget;
+        private final Scope outer;
+        private final List<String> overBudget = new ArrayList<>();
+        private int count;
+
+        private Scope(int budget, Scope outer) {
+            this.budget = budget;
+            this.outer = outer;
+        }
+
+        int count() {
+            return count;
+        }
+
+        int budget() {
+            return budget;
+        }
+
+        List<String> overBudget() {
+            return overBudget;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.whoisthespy.config;
+
+import com.whoisthespy.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * Associates a STOMP session with the user named in the {@code userId} CONNECT header, so that
+ * {@code /app} handlers act on behalf of that user and replies can be sent to
+ * {@code /user/queue/*}. Like the REST API, this identifies rather than authenticates the user.
+ * Sessions connecting without the header stay anonymous and can only subscribe to topics.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompUserInterceptor implements ChannelInterceptor {
+    public static final String USER_ID_HEADER = "userId";
+
+    private final UserService userService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+        String userId = accessor.getFirstNativeHeader(USER_ID_HEADER);
+        if (userId == null) {
+            return message;
+        }
+        UUID id;
+        try {
+            id = UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            throw new MessageDeliveryException("Invalid userId header: " + userId);
+        }
+        if (userService.findUser(id).isEmpty()) {
+            throw new MessageDeliveryException("User not found: " + userId);
+        }
+        accessor.setUser(new UserPrincipal(id));
+        return message;
+    }
+
+    /**
+     * Returns the user id of an identified session.
+     */
+    public static UUID userId(Principal principal) {
+        if (principal == null) {
+            throw new IllegalStateException("Connect with a userId header to send game commands");
+        }
+        return UUID.fromString(principal.getName());
+    }
+
+    record UserPrincipal(UUID id) implements Principal {
+        @Override
+        public String getName() {
+            return id.toString();
+        }
+    }
+}
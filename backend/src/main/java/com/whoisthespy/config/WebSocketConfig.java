@@ -1,26 +1,113 @@
 package com.whoisthespy.config;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+/**
+ * STOMP over SockJS. With {@code app.websocket.broker.mode=simple} (default) subscriptions live in
+ * this JVM; with {@code relay} broadcasts are relayed through an external STOMP broker, which then
+ * holds the subscriptions. This does not make the backend scale out: live games are held by a
+ * single instance (see {@link com.whoisthespy.service.EngineInstanceLock}).
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} inbound and outbound STOMP messages are
+ * processed on virtual threads instead of the default bounded channel thread pools.
+ * <p>
+ * Clients send game commands to {@code /app/game/**} and receive replies on
+ * {@code /user/queue/*}; see {@link StompUserInterceptor} for how sessions are tied to users.
+ * <p>
+ * Outbound messages to a slow session are buffered only up to {@code app.websocket.send-buffer-size-kb}
+ * and {@code app.websocket.send-time-limit-ms} (or {@code app.websocket.sockjs-message-cache-size}
+ * messages for SockJS polling transports). A session exceeding them is closed rather than queueing
+ * without bound; its client reconnects and replays the events it missed.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final StompUserInterceptor stompUserInterceptor;
+    
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+    
+    @Value("${app.websocket.broker.relay.host:localhost}")
+    private String relayHost;
+    
+    @Value("${app.websocket.broker.relay.port:61613}")
+    private int relayPort;
+    
+    @Value("${app.websocket.broker.relay.login:guest}")
+    private String relayLogin;
+    
+    @Value("${app.websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+    
+    @Value("${app.websocket.send-time-limit-ms:5000}")
+    private int sendTimeLimitMillis;
+    
+    @Value("${app.websocket.send-buffer-size-kb:256}")
+    private int sendBufferSizeKb;
+    
+    @Value("${app.websocket.sockjs-message-cache-size:100}")
+    private int sockJsMessageCacheSize;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
     
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(relayLogin)
+                .setClientPasscode(relayPasscode)
+                .setSystemLogin(relayLogin)
+                .setSystemPasscode(relayPasscode)
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
+        // Events are published in sequence order; keep that order per session on the outbound executor
+        config.setPreservePublishOrder(true);
         config.setApplicationDestinationPrefixes("/app");
+        config.setUserDestinationPrefix("/user");
+    }
+    
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompUserInterceptor);
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("ws-inbound-"));
+        }
+    }
+    
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("ws-outbound-"));
+        }
+    }
+    
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+            .setSendBufferSizeLimit(sendBufferSizeKb * 1024);
     }
     
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
             .setAllowedOriginPatterns("*")
-            .withSockJS();
+            .withSockJS()
+            .setHttpMessageCacheSize(sockJsMessageCacheSize);
     }
 }
-
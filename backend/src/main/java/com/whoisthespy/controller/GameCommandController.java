@@ -0,0 +1,139 @@
+package com.whoisthespy.controller;
+
+import com.whoisthespy.config.QueryBudget;
+import com.whoisthespy.config.StompUserInterceptor;
+import com.whoisthespy.controller.GameController.GameResponse;
+import com.whoisthespy.controller.GameController.NameResponse;
+import com.whoisthespy.entity.Game;
+import com.whoisthespy.service.GameEventLog;
+import com.whoisthespy.service.GameEventPublisher;
+import com.whoisthespy.service.GameService;
+import com.whoisthespy.service.RoleRegistry;
+import com.whoisthespy.service.TurnTimerService;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * STOMP counterparts of the {@link GameController} actions, for clients that already hold a
+ * WebSocket. Commands are sent to {@code /app/game/join} and {@code /app/game/{gameId}/*} on behalf
+ * of the session's user; the result goes back to that session only, on {@code /user/queue/game}
+ * (or {@code /user/queue/name}), and rejected commands are answered on {@code /user/queue/errors}.
+ * Each player's role is sent privately on {@code /user/queue/role} when the game starts.
+ * Other players are notified through the usual {@code /topic/game/{gameId}/*} deltas.
+ */
+@Controller
+@RequiredArgsConstructor
+public class GameCommandController {
+    private final GameService gameService;
+    private final GameEventPublisher gameEventPublisher;
+    private final GameEventLog gameEventLog;
+    private final RoleRegistry roleRegistry;
+    private final TurnTimerService turnTimerService;
+
+    // The game id is not known before joining, so join is addressed by join code
+    @MessageMapping("/game/join")
+    @QueryBudget(8)
+    @SendToUser(destinations = "/queue/game", broadcast = false)
+    public GameResponse join(JoinCommand command, Principal principal) {
+        UUID userId = StompUserInterceptor.userId(principal);
+        Game game = gameService.joinGame(command.getJoinCode(), userId,
+            joined -> gameEventPublisher.playersChanged(joined, List.of(userId), List.of()));
+        return new GameResponse(game);
+    }
+
+    @MessageMapping("/game/{gameId}/start")
+    @QueryBudget(10)
+    @SendToUser(destinations = "/queue/game", broadcast = false)
+    public GameResponse start(@DestinationVariable UUID gameId, StartCommand command, Principal principal) {
+        if (command.getTurnSeconds() != null) {
+            TurnTimerService.checkTurnSeconds(command.getTurnSeconds());
+        }
+        Game game = gameService.startGame(gameId, StompUserInterceptor.userId(principal), command.getNumberOfSpies(),
+            gameEventPublisher::stateChanged);
+        gameEventPublisher.rolesAssigned(roleRegistry.assign(game));
+        if (command.getTurnSeconds() != null) {
+            turnTimerService.enable(game, command.getTurnSeconds());
+        }
+        return new GameResponse(game);
+    }
+
+    @MessageMapping("/game/{gameId}/nextTurn")
+    @QueryBudget(6)
+    @SendToUser(destinations = "/queue/game", broadcast = false)
+    public GameResponse nextTurn(@DestinationVariable UUID gameId, Principal principal) {
+        Game game = gameService.nextTurn(gameId, StompUserInterceptor.userId(principal), gameEventPublisher::turnChanged);
+        turnTimerService.turnAdvanced(game);
+        return new GameResponse(game);
+    }
+
+    @MessageMapping("/game/{gameId}/generateName")
+    @QueryBudget(6)
+    @SendToUser(destinations = "/queue/name", broadcast = false)
+    public NameResponse generateName(@DestinationVariable UUID gameId, Principal principal) {
+        if (!gameService.getGame(gameId).getHostUserId().equals(StompUserInterceptor.userId(principal))) {
+            throw new IllegalStateException("Only the host can generate a new name");
+        }
+        Game game = gameService.generateNewName(gameId, gameEventPublisher::nameChanged);
+        return new NameResponse(game.getGeneratedName(), game.getGeneratedSummary());
+    }
+
+    /**
+     * Answers a subscription to {@code /app/game/{gameId}/role} with the caller's role, so that a
+     * reconnecting player gets it without waiting for the next game start.
+     */
+    @SubscribeMapping("/game/{gameId}/role")
+    public RoleRegistry.RoleAssignment role(@DestinationVariable UUID gameId, Principal principal) {
+        return roleRegistry.findRole(gameId, StompUserInterceptor.userId(principal))
+            .orElseThrow(() -> new IllegalStateException("No role assigned in game " + gameId));
+    }
+
+    /**
+     * Answers a subscription to {@code /app/game/{gameId}/replay/{lastSequence}} with the events
+     * sent since {@code lastSequence}, for clients resuming after a reconnect. Needs no user.
+     */
+    @SubscribeMapping("/game/{gameId}/replay/{lastSequence}")
+    public GameEventLog.Replay replay(@DestinationVariable UUID gameId, @DestinationVariable long lastSequence) {
+        return gameEventLog.replay(gameId, lastSequence);
+    }
+
+    @MessageExceptionHandler({IllegalArgumentException.class, IllegalStateException.class})
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public CommandError handleRejected(RuntimeException e,
+                                       @Header(SimpMessageHeaderAccessor.DESTINATION_HEADER) String destination) {
+        return new CommandError(destination, e.getMessage());
+    }
+
+    @Data
+    public static class JoinCommand {
+        private String joinCode;
+    }
+
+    @Data
+    public static class StartCommand {
+        private Integer numberOfSpies;
+        private Integer turnSeconds;
+    }
+
+    @Data
+    public static class CommandError {
+        private String destination;
+        private String message;
+
+        public CommandError(String destination, String message) {
+            this.destination = destination;
+            this.message = message;
+        }
+    }
+}
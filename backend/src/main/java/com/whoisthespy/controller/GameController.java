@@ -1,16 +1,20 @@
 package com.whoisthespy.controller;
 
+import com.whoisthespy.config.QueryBudget;
 import com.whoisthespy.entity.Game;
+import com.whoisthespy.service.GameEventPublisher;
 import com.whoisthespy.service.GameService;
+import com.whoisthespy.service.PlayerGameView;
+import com.whoisthespy.service.RoleRegistry;
+import com.whoisthespy.service.TurnTimerService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -18,13 +22,16 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class GameController {
     private final GameService gameService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final GameEventPublisher gameEventPublisher;
+    private final RoleRegistry roleRegistry;
+    private final TurnTimerService turnTimerService;
     
     @PostMapping("/create")
+    @QueryBudget(6)
     public ResponseEntity<GameResponse> createGame(@RequestBody CreateGameRequest request) {
         try {
             Game game = gameService.createGame(request.getHostUserId());
-            broadcastPlayersUpdate(game.getId(), game.getPlayers());
+            gameEventPublisher.playersChanged(game, game.getPlayers(), List.of());
             return ResponseEntity.status(HttpStatus.CREATED).body(new GameResponse(game));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -32,10 +39,11 @@ public class GameController {
     }
     
     @PostMapping("/join")
+    @QueryBudget(8)
     public ResponseEntity<GameResponse> joinGame(@RequestBody JoinGameRequest request) {
         try {
-            Game game = gameService.joinGame(request.getJoinCode(), request.getUserId());
-            broadcastPlayersUpdate(game.getId(), game.getPlayers());
+            Game game = gameService.joinGame(request.getJoinCode(), request.getUserId(),
+                joined -> gameEventPublisher.playersChanged(joined, List.of(request.getUserId()), List.of()));
             return ResponseEntity.ok(new GameResponse(game));
         } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.badRequest().build();
@@ -43,14 +51,22 @@ public class GameController {
     }
     
     @PostMapping("/start")
+    @QueryBudget(10)
     public ResponseEntity<GameResponse> startGame(@RequestBody StartGameRequest request) {
         try {
+            if (request.getTurnSeconds() != null) {
+                TurnTimerService.checkTurnSeconds(request.getTurnSeconds());
+            }
             Game game = gameService.startGame(
                 request.getGameId(), 
                 request.getHostUserId(), 
-                request.getNumberOfSpies()
+                request.getNumberOfSpies(),
+                gameEventPublisher::stateChanged
             );
-            broadcastGameUpdate(game);
+            gameEventPublisher.rolesAssigned(roleRegistry.assign(game));
+            if (request.getTurnSeconds() != null) {
+                turnTimerService.enable(game, request.getTurnSeconds());
+            }
             return ResponseEntity.ok(new GameResponse(game));
         } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.badRequest().build();
@@ -58,6 +74,7 @@ public class GameController {
     }
     
     @GetMapping("/{gameId}")
+    @QueryBudget(5)
     public ResponseEntity<GameResponse> getGame(@PathVariable UUID gameId) {
         try {
             Game game = gameService.getGame(gameId);
@@ -67,20 +84,70 @@ public class GameController {
         }
     }
     
+    /**
+     * Compact view for one player, including only their own role and word. Responds with
+     * 304 Not Modified when the client's ETag still matches the game's revision.
+     */
+    @GetMapping("/{gameId}/view")
+    @QueryBudget(6)
+    public ResponseEntity<PlayerGameView> getPlayerView(
+            @PathVariable UUID gameId,
+            @RequestParam UUID userId,
+            WebRequest request) {
+        try {
+            // The revision is the same for every viewer, but each userId is a distinct URL
+            if (request.checkNotModified(gameService.getViewRevision(gameId))) {
+                return null;
+            }
+            PlayerGameView view = gameService.getPlayerView(gameId, userId);
+            return ResponseEntity.ok().eTag(view.getRevision()).body(view);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @PostMapping("/{gameId}/nextTurn")
+    @QueryBudget(6)
     public ResponseEntity<GameResponse> nextTurn(
             @PathVariable UUID gameId, 
             @RequestBody NextTurnRequest request) {
         try {
-            Game game = gameService.nextTurn(gameId, request.getHostUserId());
-            broadcastTurnUpdate(game);
+            Game game = gameService.nextTurn(gameId, request.getHostUserId(), gameEventPublisher::turnChanged);
+            turnTimerService.turnAdvanced(game);
             return ResponseEntity.ok(new GameResponse(game));
         } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    /**
+     * Enables the server-driven turn timer, or disables it when {@code turnSeconds} is 0 or absent.
+     */
+    @PostMapping("/{gameId}/turnTimer")
+    @QueryBudget(5)
+    public ResponseEntity<Void> setTurnTimer(
+            @PathVariable UUID gameId,
+            @RequestBody TurnTimerRequest request) {
+        try {
+            Game game = gameService.getGame(gameId);
+            
+            if (!game.getHostUserId().equals(request.getHostUserId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            
+            if (request.getTurnSeconds() == null || request.getTurnSeconds() == 0) {
+                turnTimerService.disable(gameId);
+            } else {
+                turnTimerService.enable(game, request.getTurnSeconds());
+            }
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PostMapping("/{gameId}/generateName")
+    @QueryBudget(6)
     public ResponseEntity<NameResponse> generateName(
             @PathVariable UUID gameId,
             @RequestBody GenerateNameRequest request) {
@@ -91,14 +158,7 @@ public class GameController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
-            game = gameService.generateNewName(gameId);
-            
-            // Broadcast name update
-            Map<String, Object> nameUpdate = new HashMap<>();
-            nameUpdate.put("name", game.getGeneratedName());
-            nameUpdate.put("summary", game.getGeneratedSummary());
-            nameUpdate.put("gameId", gameId);
-            messagingTemplate.convertAndSend("/topic/game/" + gameId + "/name", nameUpdate);
+            game = gameService.generateNewName(gameId, gameEventPublisher::nameChanged);
             
             return ResponseEntity.ok(new NameResponse(game.getGeneratedName(), game.getGeneratedSummary()));
         } catch (Exception e) {
@@ -106,26 +166,6 @@ public class GameController {
         }
     }
     
-    private void broadcastPlayersUpdate(UUID gameId, java.util.List<UUID> players) {
-        Map<String, Object> update = new HashMap<>();
-        update.put("players", players);
-        messagingTemplate.convertAndSend((String)("/topic/game/" + gameId + "/players"), (Object)update);
-    }
-    
-    private void broadcastGameUpdate(Game game) {
-        Map<String, Object> update = new HashMap<>();
-        update.put("gameState", game.getGameState());
-        update.put("players", game.getPlayers());
-        update.put("numberOfSpies", game.getNumberOfSpies());
-        messagingTemplate.convertAndSend("/topic/game/" + game.getId() + "/players", update);
-    }
-    
-    private void broadcastTurnUpdate(Game game) {
-        Map<String, Object> update = new HashMap<>();
-        update.put("currentTurnIndex", game.getCurrentTurnIndex());
-        messagingTemplate.convertAndSend("/topic/game/" + game.getId() + "/turn", update);
-    }
-    
     @Data
     public static class CreateGameRequest {
         private UUID hostUserId;
@@ -142,6 +182,14 @@ public class GameController {
         private UUID gameId;
         private UUID hostUserId;
         private Integer numberOfSpies;
+        /** Optional turn timer duration; turns advance only manually when absent. */
+        private Integer turnSeconds;
+    }
+    
+    @Data
+    public static class TurnTimerRequest {
+        private UUID hostUserId;
+        private Integer turnSeconds;
     }
     
     @Data
@@ -154,6 +202,10 @@ public class GameController {
         private UUID hostUserId;
     }
     
+    /**
+     * The fields shared by all players. Roles are private and delivered per player on
+     * {@code /user/queue/role}; the spies are only revealed once the game is finished.
+     */
     @Data
     public static class GameResponse {
         private UUID id;
@@ -161,13 +213,15 @@ public class GameController {
         private UUID hostUserId;
         private java.util.List<UUID> players;
         private Integer numberOfSpies;
-        private java.util.List<UUID> spyUserIds;
+        private java.util.Set<UUID> spyUserIds;
+        private java.util.Set<UUID> eliminatedUserIds;
         private Integer currentTurnIndex;
-        private String civilianWord;
-        private String spyWord;
         private String generatedName;
         private String generatedSummary;
         private Game.GameState gameState;
+        private Integer voteRound;
+        private Game.Winner winner;
+        private long sequence;
         
         public GameResponse(Game game) {
             this.id = game.getId();
@@ -175,13 +229,15 @@ public class GameController {
             this.hostUserId = game.getHostUserId();
             this.players = game.getPlayers();
             this.numberOfSpies = game.getNumberOfSpies();
-            this.spyUserIds = game.getSpyUserIds();
+            this.spyUserIds = game.getGameState() == Game.GameState.FINISHED ? game.getSpyUserIds() : null;
+            this.eliminatedUserIds = game.getEliminatedUserIds();
             this.currentTurnIndex = game.getCurrentTurnIndex();
-            this.civilianWord = game.getCivilianWord();
-            this.spyWord = game.getSpyWord();
             this.generatedName = game.getGeneratedName();
             this.generatedSummary = game.getGeneratedSummary();
             this.gameState = game.getGameState();
+            this.voteRound = game.getVoteRound();
+            this.winner = game.getWinner();
+            this.sequence = game.getEventSequence();
         }
     }
     
@@ -0,0 +1,56 @@
+package com.whoisthespy.controller;
+
+import com.whoisthespy.config.StompUserInterceptor;
+import com.whoisthespy.service.VotingService;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * STOMP endpoints for voting, sent to {@code /app/game/{gameId}/vote}. Progress and outcomes are
+ * published on {@code /topic/game/{gameId}/vote}.
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class GameVoteController {
+    private final VotingService votingService;
+
+    @MessageMapping("/game/{gameId}/vote")
+    public void vote(@DestinationVariable UUID gameId, VoteRequest request, Principal principal) {
+        try {
+            // Identified sessions always vote as their own user
+            UUID voterId = principal != null ? StompUserInterceptor.userId(principal) : request.getVoterId();
+            votingService.castVote(gameId, voterId, request.getTargetId());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.debug("Rejected vote in game {}: {}", gameId, e.getMessage());
+        }
+    }
+
+    @MessageMapping("/game/{gameId}/vote/close")
+    public void closeVote(@DestinationVariable UUID gameId, CloseVoteRequest request, Principal principal) {
+        try {
+            UUID hostUserId = principal != null ? StompUserInterceptor.userId(principal) : request.getHostUserId();
+            votingService.closeRound(gameId, hostUserId);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.debug("Rejected closing vote round in game {}: {}", gameId, e.getMessage());
+        }
+    }
+
+    @Data
+    public static class VoteRequest {
+        private UUID voterId;
+        private UUID targetId;
+    }
+
+    @Data
+    public static class CloseVoteRequest {
+        private UUID hostUserId;
+    }
+}
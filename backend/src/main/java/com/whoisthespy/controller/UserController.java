@@ -1,13 +1,21 @@
 package com.whoisthespy.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.whoisthespy.config.QueryBudget;
 import com.whoisthespy.entity.User;
 import com.whoisthespy.service.UserService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,9 +23,13 @@ import java.util.UUID;
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class UserController {
+    private static final String NDJSON = "application/x-ndjson";
+    
     private final UserService userService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping
+    @QueryBudget(3)
     public ResponseEntity<User> createUser(@RequestBody CreateUserRequest request) {
         try {
             User user = userService.createUser(request.getUsername());
@@ -27,7 +39,26 @@ public class UserController {
         }
     }
     
+    /**
+     * Creates many users at once and reports the outcome for each requested username.
+     */
+    @PostMapping("/batch")
+    @QueryBudget(25)
+    public ResponseEntity<List<UserService.CreationResult>> createUsers(@RequestBody BatchCreateUsersRequest request) {
+        if (request.getUsernames() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(userService.createUsers(request.getUsernames()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
     @PutMapping("/{id}")
+    @QueryBudget(4)
     public ResponseEntity<User> updateUser(@PathVariable UUID id, @RequestBody UpdateUserRequest request) {
         try {
             User user = userService.updateUser(id, request.getUsername());
@@ -38,6 +69,7 @@ public class UserController {
     }
     
     @DeleteMapping("/{id}")
+    @QueryBudget(4)
     public ResponseEntity<Void> deleteUser(@PathVariable UUID id) {
         try {
             userService.deleteUser(id);
@@ -48,6 +80,7 @@ public class UserController {
     }
     
     @GetMapping("/{id}")
+    @QueryBudget(1)
     public ResponseEntity<User> getUser(@PathVariable UUID id) {
         try {
             User user = userService.getUserById(id);
@@ -58,8 +91,36 @@ public class UserController {
     }
     
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    @QueryBudget(1)
+    public ResponseEntity<UserService.UserPage> getUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(userService.getUsers(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Streams every user as newline-delimited JSON, straight from a database cursor.
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        StreamingResponseBody body = output -> {
+            SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(output);
+            userService.streamUsers(user -> {
+                try {
+                    writer.write(user);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
     
     @Data
@@ -67,6 +128,11 @@ public class UserController {
         private String username;
     }
     
+    @Data
+    public static class BatchCreateUsersRequest {
+        private List<String> usernames;
+    }
+    
     @Data
     public static class UpdateUserRequest {
         private String username;
@@ -5,8 +5,11 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
@@ -19,24 +22,34 @@ public class Game {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
     
-    @Column(name = "join_code", unique = true, nullable = false, length = 6)
+    @Column(name = "join_code", nullable = false, length = 6)
     private String joinCode;
     
     @Column(name = "host_user_id", nullable = false)
     private UUID hostUserId;
     
-    @ElementCollection
+    /**
+     * Players in seat (join) order. Indexed by {@code seat_index}, so appending a player inserts
+     * one row instead of rewriting the collection.
+     */
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "game_players", joinColumns = @JoinColumn(name = "game_id"))
+    @OrderColumn(name = "seat_index")
     @Column(name = "user_id")
     private List<UUID> players = new ArrayList<>();
     
     @Column(name = "number_of_spies")
     private Integer numberOfSpies;
     
-    @ElementCollection
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "game_spies", joinColumns = @JoinColumn(name = "game_id"))
     @Column(name = "user_id")
-    private List<UUID> spyUserIds = new ArrayList<>();
+    private Set<UUID> spyUserIds = new HashSet<>();
+    
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "game_eliminations", joinColumns = @JoinColumn(name = "game_id"))
+    @Column(name = "user_id")
+    private Set<UUID> eliminatedUserIds = new HashSet<>();
     
     @Column(name = "current_turn_index")
     private Integer currentTurnIndex = 0;
@@ -57,8 +70,41 @@ public class Game {
     @Column(name = "game_state")
     private GameState gameState = GameState.WAITING;
     
+    @Column(name = "vote_round", nullable = false)
+    private Integer voteRound = 0;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "winner")
+    private Winner winner;
+    
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    @Column(name = "last_activity_at", nullable = false)
+    private LocalDateTime lastActivityAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    /**
+     * Sequence number of the last change applied to this game, used to order WebSocket deltas.
+     * Not persisted; assigned by the in-memory game engine.
+     */
+    @Transient
+    private long eventSequence;
+    
+    @PrePersist
+    protected void onCreate() {
+        lastActivityAt = LocalDateTime.now();
+    }
+    
     public enum GameState {
         WAITING, RUNNING, FINISHED
     }
+    
+    public enum Winner {
+        CIVILIANS, SPIES
+    }
 }
 
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,6 +13,11 @@ import java.util.UUID;
 public interface GameNameRepository extends JpaRepository<GameName, UUID> {
     List<GameName> findByCategory(String category);
     
-    @Query(value = "SELECT * FROM game_names WHERE category = :category ORDER BY RANDOM() LIMIT 1", nativeQuery = true)
-    GameName findRandomByCategory(String category);
+    @Query("SELECT COUNT(n) AS total, MAX(n.createdAt) AS lastCreatedAt FROM GameName n")
+    Fingerprint fingerprint();
+    
+    interface Fingerprint {
+        long getTotal();
+        LocalDateTime getLastCreatedAt();
+    }
 }
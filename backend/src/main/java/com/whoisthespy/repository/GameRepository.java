@@ -1,14 +1,122 @@
 package com.whoisthespy.repository;
 
 import com.whoisthespy.entity.Game;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, UUID> {
-    Optional<Game> findByJoinCode(String joinCode);
+    @Query("SELECT g.id FROM Game g WHERE g.joinCode = :joinCode " +
+           "AND g.gameState <> com.whoisthespy.entity.Game.GameState.FINISHED")
+    Optional<UUID> findLiveGameIdByJoinCode(String joinCode);
+    
+    @Query(value = "SELECT nextval('join_code_block_seq')", nativeQuery = true)
+    long nextJoinCodeBlock();
+    
+    @Query("SELECT g.version FROM Game g WHERE g.id = :gameId")
+    Optional<Long> findVersionById(UUID gameId);
+    
+    @Query("SELECT g.id AS id, g.version AS version FROM Game g WHERE g.id IN :gameIds")
+    List<GameVersion> findVersionsByIdIn(Collection<UUID> gameIds);
+    
+    @Query("SELECT g.id AS id, g.joinCode AS joinCode, g.hostUserId AS hostUserId, " +
+           "g.numberOfSpies AS numberOfSpies, g.currentTurnIndex AS currentTurnIndex, " +
+           "g.civilianWord AS civilianWord, g.spyWord AS spyWord, g.generatedName AS generatedName, " +
+           "g.gameState AS gameState, g.voteRound AS voteRound, g.winner AS winner, g.version AS version " +
+           "FROM Game g WHERE g.id = :gameId")
+    Optional<GameSummary> findSummaryById(UUID gameId);
+    
+    @Query(value = "SELECT user_id FROM game_players WHERE game_id = :gameId ORDER BY seat_index", nativeQuery = true)
+    List<UUID> findPlayerIds(UUID gameId);
+    
+    @Query(value = "SELECT user_id FROM game_eliminations WHERE game_id = :gameId", nativeQuery = true)
+    List<UUID> findEliminatedIds(UUID gameId);
+    
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM game_spies WHERE game_id = :gameId AND user_id = :userId)",
+           nativeQuery = true)
+    boolean isSpy(UUID gameId, UUID userId);
+    
+    /**
+     * Writes the scalar columns of {@code game} if its version still matches, bumping the version.
+     * Returns the number of updated rows (0 on a version conflict).
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Game g SET g.numberOfSpies = :#{#game.numberOfSpies}, " +
+           "g.currentTurnIndex = :#{#game.currentTurnIndex}, " +
+           "g.civilianWord = :#{#game.civilianWord}, " +
+           "g.spyWord = :#{#game.spyWord}, " +
+           "g.generatedName = :#{#game.generatedName}, " +
+           "g.generatedSummary = :#{#game.generatedSummary}, " +
+           "g.gameState = :#{#game.gameState}, " +
+           "g.voteRound = :#{#game.voteRound}, " +
+           "g.winner = :#{#game.winner}, " +
+           "g.lastActivityAt = :#{#game.lastActivityAt}, " +
+           "g.finishedAt = :#{#game.finishedAt}, " +
+           "g.version = g.version + 1 " +
+           "WHERE g.id = :#{#game.id} AND g.version = :#{#game.version}")
+    int updateState(@Param("game") Game game);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO game_players (game_id, user_id, seat_index) VALUES (:gameId, :userId, :seatIndex) " +
+                   "ON CONFLICT (game_id, user_id) DO NOTHING", nativeQuery = true)
+    int insertPlayer(UUID gameId, UUID userId, int seatIndex);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO game_spies (game_id, user_id) VALUES (:gameId, :userId) " +
+                   "ON CONFLICT (game_id, user_id) DO NOTHING", nativeQuery = true)
+    int insertSpy(UUID gameId, UUID userId);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO game_eliminations (game_id, user_id) VALUES (:gameId, :userId) " +
+                   "ON CONFLICT (game_id, user_id) DO NOTHING", nativeQuery = true)
+    int insertElimination(UUID gameId, UUID userId);
+    
+    @Query("SELECT g.id FROM Game g WHERE g.lastActivityAt < :idleBefore " +
+           "AND g.gameState <> com.whoisthespy.entity.Game.GameState.FINISHED ORDER BY g.lastActivityAt")
+    List<UUID> findIdleGameIds(LocalDateTime idleBefore, Limit limit);
+    
+    @Query("SELECT MIN(g.finishedAt) FROM Game g WHERE g.finishedAt < :finishedBefore " +
+           "AND g.gameState = com.whoisthespy.entity.Game.GameState.FINISHED")
+    Optional<LocalDateTime> findOldestFinishedAt(LocalDateTime finishedBefore);
+    
+    /**
+     * Moves up to {@code batchSize} games finished before {@code finishedBefore} into
+     * {@code games_archive}, folding their players, spies and eliminations into arrays. Rows locked by another
+     * transaction are skipped rather than waited for. Returns the number of games moved.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "WITH batch AS (" +
+                   "  SELECT id FROM games WHERE game_state = 'FINISHED' AND finished_at < :finishedBefore " +
+                   "  ORDER BY finished_at LIMIT :batchSize FOR UPDATE SKIP LOCKED" +
+                   "), archived AS (" +
+                   "  INSERT INTO games_archive (id, join_code, host_user_id, number_of_spies, current_turn_index, " +
+                   "    civilian_word, spy_word, generated_name, generated_summary, vote_round, winner, " +
+                   "    player_ids, spy_ids, eliminated_ids, finished_at) " +
+                   "  SELECT g.id, g.join_code, g.host_user_id, g.number_of_spies, g.current_turn_index, " +
+                   "    g.civilian_word, g.spy_word, g.generated_name, g.generated_summary, g.vote_round, g.winner, " +
+                   "    ARRAY(SELECT p.user_id FROM game_players p WHERE p.game_id = g.id ORDER BY p.seat_index), " +
+                   "    ARRAY(SELECT s.user_id FROM game_spies s WHERE s.game_id = g.id), " +
+                   "    ARRAY(SELECT e.user_id FROM game_eliminations e WHERE e.game_id = g.id), " +
+                   "    g.finished_at " +
+                   "  FROM games g JOIN batch b ON b.id = g.id " +
+                   "  RETURNING id" +
+                   ") " +
+                   "DELETE FROM games g USING archived a WHERE g.id = a.id", nativeQuery = true)
+    int archiveFinishedGames(LocalDateTime finishedBefore, int batchSize);
 }
-
@@ -0,0 +1,23 @@
+package com.whoisthespy.repository;
+
+import com.whoisthespy.entity.Game;
+
+import java.util.UUID;
+
+/**
+ * Scalar columns of a game, without the membership collections or the generated summary.
+ */
+public interface GameSummary {
+    UUID getId();
+    String getJoinCode();
+    UUID getHostUserId();
+    Integer getNumberOfSpies();
+    Integer getCurrentTurnIndex();
+    String getCivilianWord();
+    String getSpyWord();
+    String getGeneratedName();
+    Game.GameState getGameState();
+    Integer getVoteRound();
+    Game.Winner getWinner();
+    Long getVersion();
+}
@@ -0,0 +1,11 @@
+package com.whoisthespy.repository;
+
+import java.util.UUID;
+
+/**
+ * The optimistic-lock version of a stored game.
+ */
+public interface GameVersion {
+    UUID getId();
+    Long getVersion();
+}
@@ -2,8 +2,12 @@ package com.whoisthespy.repository;
 
 import com.whoisthespy.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,5 +15,15 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+    
+    @Query(value = "SELECT * FROM users ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<User> findFirstPage(int limit);
+    
+    @Query(value = "SELECT * FROM users WHERE (created_at, id) > (:createdAt, :id) " +
+                   "ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<User> findPageAfter(LocalDateTime createdAt, UUID id, int limit);
+    
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
 }
 
@@ -0,0 +1,84 @@
+package com.whoisthespy.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Keeps the backend to a single running instance. {@link GameStateEngine} holds live games in
+ * memory and writes them back behind the callers, so two instances serving the same database
+ * would each load their own copy of a game and keep overwriting each other.
+ * <p>
+ * The instance holds a PostgreSQL session advisory lock on a dedicated connection, outside the
+ * connection pools. Startup fails if another instance holds it. If the connection is lost, the
+ * lock is taken again on a new one; should another instance have taken it in the meantime, this
+ * one shuts down.
+ */
+@Component
+@Slf4j
+public class EngineInstanceLock {
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_lock(hashtext('whoisthespy.game-engine'))";
+
+    private final DataSourceProperties properties;
+    private final ApplicationContext applicationContext;
+    private Connection connection;
+
+    public EngineInstanceLock(DataSourceProperties properties, ApplicationContext applicationContext) throws SQLException {
+        this.properties = properties;
+        this.applicationContext = applicationContext;
+        if (!acquire()) {
+            throw new IllegalStateException("Another backend instance is already serving games from this database");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.engine.lock-check-interval-ms:10000}")
+    public synchronized void verify() {
+        try {
+            if (connection.isValid(5)) {
+                return;
+            }
+            log.warn("Lost the connection holding the engine instance lock; taking the lock again");
+            connection.close();
+            if (!acquire()) {
+                log.error("Another backend instance took over the engine instance lock; shutting down");
+                new Thread(() -> System.exit(SpringApplication.exit(applicationContext, () -> 1))).start();
+            }
+        } catch (SQLException e) {
+            log.warn("Could not take the engine instance lock again: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void release() throws SQLException {
+        connection.close();
+    }
+
+    // Opens a new connection and tries the lock on it; the connection is kept only if it holds the lock
+    private boolean acquire() throws SQLException {
+        Connection candidate = DriverManager.getConnection(properties.determineUrl(),
+            properties.determineUsername(), properties.determinePassword());
+        try (Statement statement = candidate.createStatement();
+             ResultSet result = statement.executeQuery(TRY_LOCK)) {
+            result.next();
+            if (result.getBoolean(1)) {
+                connection = candidate;
+                return true;
+            }
+        } catch (SQLException e) {
+            candidate.close();
+            throw e;
+        }
+        candidate.close();
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package com.whoisthespy.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The most recent sequenced events of each game, kept so that a client reconnecting after a short
+ * drop can replay what it missed instead of re-fetching the game.
+ * <p>
+ * Each game keeps at most {@code app.websocket.replay-buffer-size} events; older ones are
+ * discarded, and a client that is further behind gets an incomplete {@link Replay} and falls back
+ * to a full reload. Buffers of games without events for {@code app.websocket.replay-idle-ms} are
+ * dropped.
+ */
+@Component
+public class GameEventLog {
+    private final int capacity;
+    private final long idleMillis;
+
+    private final Map<UUID, EventBuffer> buffers = new ConcurrentHashMap<>();
+
+    public GameEventLog(@Value("${app.websocket.replay-buffer-size:64}") int capacity,
+                        @Value("${app.websocket.replay-idle-ms:3600000}") long idleMillis) {
+        this.capacity = capacity;
+        this.idleMillis = idleMillis;
+    }
+
+    /**
+     * Records a sent event covering the sequences {@code firstSequence} to {@code sequence}.
+     */
+    public void append(UUID gameId, long firstSequence, long sequence, Map<String, Object> event) {
+        if (capacity <= 0) {
+            return;
+        }
+        EventBuffer buffer = buffers.computeIfAbsent(gameId, id -> new EventBuffer());
+        synchronized (buffer) {
+            if (buffer.entries.size() == capacity) {
+                buffer.entries.removeFirst();
+            }
+            buffer.entries.addLast(new Entry(firstSequence, sequence, event));
+            buffer.lastAppendAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Returns the events after {@code lastSequence}, in the order they were sent. The replay is
+     * incomplete when events the client has not seen are no longer buffered.
+     */
+    public Replay replay(UUID gameId, long lastSequence) {
+        EventBuffer buffer = buffers.get(gameId);
+        if (buffer == null) {
+            return new Replay(gameId, false, List.of());
+        }
+        synchronized (buffer) {
+            Entry oldest = buffer.entries.peekFirst();
+            if (oldest == null || oldest.firstSequence > lastSequence + 1) {
+                return new Replay(gameId, false, List.of());
+            }
+            List<Map<String, Object>> events = new ArrayList<>();
+            for (Entry entry : buffer.entries) {
+                if (entry.sequence > lastSequence) {
+                    events.add(entry.event);
+                }
+            }
+            return new Replay(gameId, true, events);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.websocket.replay-idle-ms:3600000}")
+    public void dropIdle() {
+        long now = System.currentTimeMillis();
+        buffers.values().removeIf(buffer -> now - buffer.lastAppendAt > idleMillis);
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Replay {
+        private UUID gameId;
+        /** False when the client must reload the game instead. */
+        private boolean complete;
+        private List<Map<String, Object>> events;
+    }
+
+    private record Entry(long firstSequence, long sequence, Map<String, Object> event) {
+    }
+
+    private static class EventBuffer {
+        private final Deque<Entry> entries = new ArrayDeque<>();
+        private volatile long lastAppendAt = System.currentTimeMillis();
+    }
+}
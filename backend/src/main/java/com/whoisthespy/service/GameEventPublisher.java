@@ -0,0 +1,299 @@
+package com.whoisthespy.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.whoisthespy.entity.Game;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes self-contained state deltas on {@code /topic/game/{id}/*}.
+ * <p>
+ * Every delta carries the game's event sequence. Clients apply deltas whose sequence is exactly
+ * one past the last one they have seen, ignore older ones, and re-fetch the game over REST when
+ * they detect a gap.
+ * <p>
+ * Player deltas arrive in bursts when many players join at once, so they are coalesced per game
+ * for {@code app.websocket.coalesce-ms}: one {@code PLAYERS} event then covers the sequences from
+ * {@code firstSequence} to {@code sequence}. Pending player deltas are sent before any other event
+ * of the same game, and the sends of a game never run concurrently, which keeps events in
+ * sequence order. Each event is serialized once and the
+ * same bytes are handed to the broker for all subscribers. Sequenced events are also kept in the
+ * {@link GameEventLog} for clients resuming after a reconnect.
+ * <p>
+ * The time spent handing each delta to the broker is recorded in the {@code game.broadcast.handoff}
+ * histogram, tagged by destination type. It ends once the broker has accepted the message: the
+ * fan-out to subscribers runs afterwards on the client outbound channel, and end-to-end delivery
+ * is measured by the load test's {@code BroadcastProbe}; player deltas merged into another one are counted by
+ * {@code game.broadcast.coalesced}.
+ */
+@Service
+public class GameEventPublisher {
+    private static final int SEND_LOCK_STRIPES = 256;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final GameEventLog gameEventLog;
+    private final MeterRegistry meterRegistry;
+    private final long coalesceMillis;
+    private final Counter coalesced;
+    private final Map<String, Timer> handoffTimers = new ConcurrentHashMap<>();
+
+    private final Map<UUID, PendingPlayers> pendingPlayers = new ConcurrentHashMap<>();
+    // Not synchronized: sends may run on virtual threads
+    private final ReentrantLock[] sendLocks = new ReentrantLock[SEND_LOCK_STRIPES];
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        runnable -> Thread.ofPlatform().name("broadcast-coalescer").daemon().unstarted(runnable));
+
+    public GameEventPublisher(SimpMessagingTemplate messagingTemplate,
+                              ObjectMapper objectMapper,
+                              GameEventLog gameEventLog,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.websocket.coalesce-ms:100}") long coalesceMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.gameEventLog = gameEventLog;
+        this.meterRegistry = meterRegistry;
+        this.coalesceMillis = coalesceMillis;
+        for (int i = 0; i < sendLocks.length; i++) {
+            sendLocks[i] = new ReentrantLock();
+        }
+        this.coalesced = Counter.builder("game.broadcast.coalesced")
+            .description("Player deltas merged into a pending delta instead of being sent")
+            .register(meterRegistry);
+    }
+
+    public void playersChanged(Game game, List<UUID> added, List<UUID> removed) {
+        if (coalesceMillis <= 0) {
+            PendingPlayers single = new PendingPlayers(game.getEventSequence()).merge(game, added, removed);
+            send(game.getId(), "players", single.event(game.getId()));
+            return;
+        }
+        boolean[] opened = new boolean[1];
+        pendingPlayers.compute(game.getId(), (gameId, pending) -> {
+            if (pending == null) {
+                pending = new PendingPlayers(game.getEventSequence());
+                opened[0] = true;
+            } else {
+                coalesced.increment();
+            }
+            return pending.merge(game, added, removed);
+        });
+        if (opened[0]) {
+            scheduler.schedule(() -> flushPlayers(game.getId()), coalesceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void stateChanged(Game game) {
+        Map<String, Object> event = event("STATE", game);
+        event.put("gameState", game.getGameState());
+        event.put("numberOfSpies", game.getNumberOfSpies());
+        event.put("currentTurnIndex", game.getCurrentTurnIndex());
+        event.put("generatedName", game.getGeneratedName());
+        event.put("generatedSummary", game.getGeneratedSummary());
+        send(game.getId(), "state", event);
+    }
+
+    public void turnChanged(Game game) {
+        Map<String, Object> event = event("TURN", game);
+        event.put("currentTurnIndex", game.getCurrentTurnIndex());
+        send(game.getId(), "turn", event);
+    }
+
+    /**
+     * Countdown of the current turn. Ticks are not sequenced: they carry no state and are safe to
+     * drop, so clients apply them without ordering checks.
+     */
+    public void turnTick(UUID gameId, int currentTurnIndex, long remainingSeconds) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("type", "TICK");
+        event.put("gameId", gameId);
+        event.put("currentTurnIndex", currentTurnIndex);
+        event.put("remainingSeconds", remainingSeconds);
+        send(gameId, "turn", event);
+    }
+    
+    /**
+     * Unsequenced progress of the open vote round; the tally itself stays secret until resolved.
+     */
+    public void votesChanged(UUID gameId, int round, int votesCast, int eligibleVoters) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("type", "VOTES");
+        event.put("gameId", gameId);
+        event.put("voteRound", round);
+        event.put("votesCast", votesCast);
+        event.put("eligibleVoters", eligibleVoters);
+        send(gameId, "vote", event);
+    }
+    
+    public void roundResolved(Game game, int round, UUID eliminatedUserId, Map<UUID, Long> tally) {
+        Map<String, Object> event = event("ROUND", game);
+        event.put("round", round);
+        event.put("eliminatedUserId", eliminatedUserId);
+        event.put("tally", tally);
+        event.put("voteRound", game.getVoteRound());
+        event.put("gameState", game.getGameState());
+        event.put("winner", game.getWinner());
+        send(game.getId(), "vote", event);
+    }
+    
+    public void nameChanged(Game game) {
+        Map<String, Object> event = event("NAME", game);
+        event.put("name", game.getGeneratedName());
+        event.put("summary", game.getGeneratedSummary());
+        send(game.getId(), "name", event);
+    }
+
+    /**
+     * Sends each player their own role, privately on {@code /user/queue/role}. Reaches only
+     * sessions identified with the player's id; others ask for it by subscribing to
+     * {@code /app/game/{id}/role}.
+     */
+    public void rolesAssigned(Map<UUID, RoleRegistry.RoleAssignment> assignments) {
+        handoffTimer("role").record(() -> assignments.forEach((userId, assignment) ->
+            messagingTemplate.convertAndSendToUser(userId.toString(), "/queue/role", assignment)));
+    }
+
+    private Map<String, Object> event(String type, Game game) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("type", type);
+        event.put("gameId", game.getId());
+        event.put("sequence", game.getEventSequence());
+        return event;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        pendingPlayers.keySet().forEach(this::flushPlayers);
+    }
+
+    private void flushPlayers(UUID gameId) {
+        ReentrantLock lock = sendLock(gameId);
+        lock.lock();
+        try {
+            // Removed atomically, so no delta is merged into it any more, and sent outside the map
+            PendingPlayers pending = pendingPlayers.remove(gameId);
+            if (pending != null) {
+                sendNow(gameId, "players", pending.event(gameId));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void send(UUID gameId, String topic, Map<String, Object> event) {
+        ReentrantLock lock = sendLock(gameId);
+        lock.lock();
+        try {
+            if (!"players".equals(topic)) {
+                flushPlayers(gameId);
+            }
+            sendNow(gameId, topic, event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Serializes the sends of a game, so a scheduled flush of its player deltas is not overtaken
+    // by another of its events
+    private ReentrantLock sendLock(UUID gameId) {
+        return sendLocks[Math.floorMod(gameId.hashCode(), sendLocks.length)];
+    }
+
+    private void sendNow(UUID gameId, String topic, Map<String, Object> event) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event.get("type") + " event", e);
+        }
+        handoffTimer(topic).record(() -> messagingTemplate.send("/topic/game/" + gameId + "/" + topic,
+            MessageBuilder.withPayload(payload)
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build()));
+        Object sequence = event.get("sequence");
+        if (sequence != null) {
+            gameEventLog.append(gameId, (Long) event.getOrDefault("firstSequence", sequence), (Long) sequence, event);
+        }
+    }
+
+    private Timer handoffTimer(String topic) {
+        return handoffTimers.computeIfAbsent(topic, destination -> Timer.builder("game.broadcast.handoff")
+            .description("Time taken to hand a game delta to the message broker, excluding fan-out to subscribers")
+            .tag("destination", destination)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    /**
+     * Player deltas of one game waiting to be sent as a single event.
+     */
+    private static class PendingPlayers {
+        private final Set<UUID> added = new LinkedHashSet<>();
+        private final Set<UUID> removed = new LinkedHashSet<>();
+        private long firstSequence;
+        private long lastSequence;
+        private int merged;
+        private int playerCount;
+
+        PendingPlayers(long sequence) {
+            this.firstSequence = sequence;
+            this.lastSequence = sequence;
+        }
+
+        PendingPlayers merge(Game game, List<UUID> addedPlayers, List<UUID> removedPlayers) {
+            long sequence = game.getEventSequence();
+            for (UUID userId : addedPlayers) {
+                removed.remove(userId);
+                added.add(userId);
+            }
+            for (UUID userId : removedPlayers) {
+                added.remove(userId);
+                removed.add(userId);
+            }
+            if (sequence >= lastSequence) {
+                lastSequence = sequence;
+                playerCount = game.getPlayers().size();
+            }
+            firstSequence = Math.min(firstSequence, sequence);
+            merged++;
+            return this;
+        }
+
+        Map<String, Object> event(UUID gameId) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", "PLAYERS");
+            event.put("gameId", gameId);
+            // A range with sequences of other events in it cannot be applied as a whole, so
+            // clients behind its end re-fetch the game instead
+            boolean contiguous = lastSequence - firstSequence + 1 == merged;
+            event.put("firstSequence", contiguous ? firstSequence : lastSequence);
+            event.put("sequence", lastSequence);
+            event.put("added", added);
+            event.put("removed", removed);
+            event.put("playerCount", playerCount);
+            return event;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.GameName;
+import com.whoisthespy.repository.GameNameRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Category-indexed, in-memory copy of {@code game_names}.
+ * <p>
+ * The pool is loaded at startup and reloaded whenever the table fingerprint (row count and
+ * latest {@code created_at}) changes. Picks are O(1) and do not allocate; picks made for a
+ * session (a game) avoid repeating a name until the category is exhausted.
+ */
+@Component
+@Slf4j
+public class GameNamePool {
+    private final GameNameRepository gameNameRepository;
+    private final Timer refreshTimer;
+    private final long sessionIdleMillis;
+
+    private volatile Pool pool = new Pool(Map.of(), null);
+    private final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
+
+    public GameNamePool(GameNameRepository gameNameRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.names.session-idle-ms:3600000}") long sessionIdleMillis) {
+        this.gameNameRepository = gameNameRepository;
+        this.sessionIdleMillis = sessionIdleMillis;
+        this.refreshTimer = Timer.builder("game.names.pool.refresh")
+            .description("Time taken to reload the name pool from game_names")
+            .register(meterRegistry);
+        Gauge.builder("game.names.pool.size", this, GameNamePool::size)
+            .description("Number of names held in the in-memory pool")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        reload(gameNameRepository.fingerprint());
+    }
+
+    @Scheduled(fixedDelayString = "${app.names.refresh-interval-ms:60000}",
+               initialDelayString = "${app.names.refresh-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public void refreshIfChanged() {
+        GameNameRepository.Fingerprint fingerprint = gameNameRepository.fingerprint();
+        if (!pool.matches(fingerprint)) {
+            reload(fingerprint);
+        }
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> now - session.lastUsed > sessionIdleMillis);
+    }
+
+    /**
+     * Picks a random name from {@code category}, or {@code null} if the category is empty.
+     */
+    public String pick(String category) {
+        String[] names = pool.namesByCategory.get(category);
+        if (names == null || names.length == 0) {
+            return null;
+        }
+        return names[ThreadLocalRandom.current().nextInt(names.length)];
+    }
+
+    /**
+     * Picks a random name from {@code category} that has not yet been handed out to
+     * {@code sessionId}. Once every name has been used the session starts over.
+     */
+    public String pick(String category, UUID sessionId) {
+        Pool current = pool;
+        String[] names = current.namesByCategory.get(category);
+        if (names == null || names.length == 0) {
+            return null;
+        }
+        Session session = sessions.computeIfAbsent(sessionId, id -> new Session());
+        synchronized (session) {
+            if (session.pool != current || !category.equals(session.category)) {
+                session.pool = current;
+                session.category = category;
+                session.used.clear();
+            }
+            int index = ThreadLocalRandom.current().nextInt(names.length);
+            if (session.used.get(index)) {
+                index = session.used.nextClearBit(index);
+                if (index >= names.length) {
+                    index = session.used.nextClearBit(0);
+                }
+                if (index >= names.length) {
+                    session.used.clear();
+                    index = ThreadLocalRandom.current().nextInt(names.length);
+                }
+            }
+            session.used.set(index);
+            session.lastUsed = System.currentTimeMillis();
+            return names[index];
+        }
+    }
+
+    public void endSession(UUID sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public int size() {
+        int size = 0;
+        for (String[] names : pool.namesByCategory.values()) {
+            size += names.length;
+        }
+        return size;
+    }
+
+    private void reload(GameNameRepository.Fingerprint fingerprint) {
+        refreshTimer.record(() -> {
+            Map<String, List<String>> grouped = new HashMap<>();
+            for (GameName gameName : gameNameRepository.findAll()) {
+                grouped.computeIfAbsent(gameName.getCategory(), category -> new ArrayList<>()).add(gameName.getName());
+            }
+            Map<String, String[]> namesByCategory = new HashMap<>();
+            grouped.forEach((category, names) -> namesByCategory.put(category, names.toArray(new String[0])));
+            pool = new Pool(Map.copyOf(namesByCategory), fingerprint);
+        });
+        log.info("Loaded {} game names in {} categories", size(), pool.namesByCategory.size());
+    }
+
+    private static final class Pool {
+        private final Map<String, String[]> namesByCategory;
+        private final long total;
+        private final LocalDateTime lastCreatedAt;
+
+        Pool(Map<String, String[]> namesByCategory, GameNameRepository.Fingerprint fingerprint) {
+            this.namesByCategory = namesByCategory;
+            this.total = fingerprint == null ? -1 : fingerprint.getTotal();
+            this.lastCreatedAt = fingerprint == null ? null : fingerprint.getLastCreatedAt();
+        }
+
+        boolean matches(GameNameRepository.Fingerprint fingerprint) {
+            return total == fingerprint.getTotal() && Objects.equals(lastCreatedAt, fingerprint.getLastCreatedAt());
+        }
+    }
+
+    private static final class Session {
+        private final BitSet used = new BitSet();
+        private Pool pool;
+        private String category;
+        private volatile long lastUsed = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,171 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.Game;
+import com.whoisthespy.repository.GameRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Background clean-up of the hot game tables.
+ * <p>
+ * Each run finishes WAITING/RUNNING games that have seen no mutation for the idle TTL (through
+ * the engine, so their join codes are released and connected clients are notified), then moves
+ * games finished longer than the archive delay into the monthly partitions of
+ * {@code games_archive}. Archival runs in small batches, each in its own short transaction, and
+ * skips rows locked by concurrent writers.
+ */
+@Component
+@Slf4j
+public class GameReaper {
+    private final GameRepository gameRepository;
+    private final GameStateEngine gameStateEngine;
+    private final GameEventPublisher gameEventPublisher;
+    private final TurnTimerService turnTimerService;
+    private final JdbcTemplate jdbcTemplate;
+    private final long idleTtlMillis;
+    private final long archiveAfterMillis;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter expiredGames;
+    private final Counter archivedGames;
+
+    private final Set<YearMonth> readyPartitions = new HashSet<>();
+
+    public GameReaper(GameRepository gameRepository,
+                      GameStateEngine gameStateEngine,
+                      GameEventPublisher gameEventPublisher,
+                      TurnTimerService turnTimerService,
+                      JdbcTemplate jdbcTemplate,
+                      MeterRegistry meterRegistry,
+                      @Value("${app.reaper.idle-ttl-ms:3600000}") long idleTtlMillis,
+                      @Value("${app.reaper.archive-after-ms:3600000}") long archiveAfterMillis,
+                      @Value("${app.reaper.batch-size:100}") int batchSize,
+                      @Value("${app.reaper.max-batches:50}") int maxBatches) {
+        this.gameRepository = gameRepository;
+        this.gameStateEngine = gameStateEngine;
+        this.gameEventPublisher = gameEventPublisher;
+        this.turnTimerService = turnTimerService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.idleTtlMillis = idleTtlMillis;
+        this.archiveAfterMillis = archiveAfterMillis;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.expiredGames = Counter.builder("game.reaper.expired")
+            .description("Idle games finished by the reaper")
+            .register(meterRegistry);
+        this.archivedGames = Counter.builder("game.reaper.archived")
+            .description("Finished games moved to games_archive")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reaper.interval-ms:60000}",
+               initialDelayString = "${app.reaper.interval-ms:60000}")
+    public void reap() {
+        expireIdleGames();
+        archiveFinishedGames();
+    }
+
+    void expireIdleGames() {
+        LocalDateTime idleBefore = LocalDateTime.now().minus(Duration.ofMillis(idleTtlMillis));
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<UUID> gameIds = gameRepository.findIdleGameIds(idleBefore, Limit.of(batchSize));
+            int expired = 0;
+            for (UUID gameId : gameIds) {
+                try {
+                    Optional<Game> finished = gameStateEngine.expireIfIdle(gameId, idleBefore,
+                        gameEventPublisher::stateChanged);
+                    if (finished.isPresent()) {
+                        turnTimerService.disable(gameId);
+                        expired++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Failed to expire idle game {}", gameId, e);
+                }
+            }
+            expiredGames.increment(expired);
+            // Games that were active in memory are skipped and would be selected again
+            if (gameIds.size() < batchSize || expired == 0) {
+                return;
+            }
+        }
+    }
+
+    void archiveFinishedGames() {
+        LocalDateTime finishedBefore = LocalDateTime.now().minus(Duration.ofMillis(archiveAfterMillis));
+        Optional<LocalDateTime> oldest = gameRepository.findOldestFinishedAt(finishedBefore);
+        if (oldest.isEmpty() || !ensurePartitions(YearMonth.from(oldest.get()), YearMonth.from(finishedBefore))) {
+            return;
+        }
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int archived = gameRepository.archiveFinishedGames(finishedBefore, batchSize);
+            archivedGames.increment(archived);
+            if (archived < batchSize) {
+                if (archived > 0 || batch > 0) {
+                    log.info("Archived {} finished games", batch * batchSize + archived);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Creates the archive partitions for every month from {@code first} to {@code last}, which
+     * covers all games to be archived, so they are never routed to the default partition.
+     * Returns false if one could not be created, in which case archival is skipped.
+     */
+    private boolean ensurePartitions(YearMonth first, YearMonth last) {
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            if (readyPartitions.contains(month)) {
+                continue;
+            }
+            try {
+                createPartition(month);
+                readyPartitions.add(month);
+            } catch (DataAccessException e) {
+                // Another instance may be creating the same partition; retried on the next run
+                log.warn("Failed to create archive partition for {}", month, e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the partition of {@code month} if it does not exist yet. Rows of that month already
+     * in the default partition (archived before this partition was created) are moved into it in
+     * the same transaction, since Postgres refuses a partition whose rows sit in the default one.
+     */
+    private void createPartition(YearMonth month) {
+        String partition = String.format("games_archive_y%dm%02d", month.getYear(), month.getMonthValue());
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        jdbcTemplate.execute(String.format("""
+            DO $$
+            BEGIN
+                IF to_regclass('%1$s') IS NULL THEN
+                    CREATE TABLE %1$s (LIKE games_archive INCLUDING DEFAULTS);
+                    INSERT INTO %1$s SELECT * FROM games_archive_default
+                        WHERE finished_at >= '%2$s' AND finished_at < '%3$s';
+                    DELETE FROM games_archive_default WHERE finished_at >= '%2$s' AND finished_at < '%3$s';
+                    ALTER TABLE games_archive ATTACH PARTITION %1$s FOR VALUES FROM ('%2$s') TO ('%3$s');
+                END IF;
+            END $$
+            """, partition, from, to));
+    }
+}
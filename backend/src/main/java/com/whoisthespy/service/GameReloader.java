@@ -0,0 +1,22 @@
+package com.whoisthespy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks up games changed outside the engine, e.g. through the reactive API against the same
+ * database. Each run reloads the live games whose stored version moved on and publishes their
+ * new state; the event's sequence gap makes clients re-fetch the rest of the game.
+ */
+@Component
+@RequiredArgsConstructor
+public class GameReloader {
+    private final GameStateEngine gameStateEngine;
+    private final GameEventPublisher gameEventPublisher;
+
+    @Scheduled(fixedDelayString = "${app.engine.reload-interval-ms:2000}")
+    public void reloadChanged() {
+        gameStateEngine.reloadChanged(gameEventPublisher::stateChanged);
+    }
+}
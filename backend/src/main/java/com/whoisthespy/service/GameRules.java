@@ -0,0 +1,109 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.Game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Rules of the game that do not depend on how games are stored: validation of player actions,
+ * role visibility, word, spy and location name assignment, and join code encoding. Shared by
+ * {@link GameService} and the reactive module, so it uses nothing but the JDK and the game model.
+ */
+public final class GameRules {
+    public static final int JOIN_CODE_LENGTH = 6;
+    public static final long JOIN_CODE_SPACE = 308_915_776L; // 26^6
+
+    public static final String LOCATION_CATEGORY = "location";
+    public static final String FALLBACK_LOCATION = "Unknown Location";
+    public static final String FALLBACK_LOCATION_SUMMARY = "A location for discussion in the game.";
+    public static final String LOCATION_SUMMARY = "A famous and recognizable location that players can discuss. "
+        + "This place is well-known around the world and has cultural or historical significance.";
+
+    private static final String[] CIVILIAN_WORDS = "cat,dog,house,car,tree,book,phone,computer,table,chair".split(",");
+    private static final String[] SPY_WORDS = "animal,pet,home,vehicle,plant,object,device,machine,furniture,seat".split(",");
+
+    // Coprime with 26^6, so index -> (MULTIPLIER * index + OFFSET) mod JOIN_CODE_SPACE is a bijection
+    private static final long MULTIPLIER = 179_424_673L;
+    private static final long OFFSET = 48_271_319L;
+
+    private GameRules() {
+    }
+
+    public static void checkHost(UUID hostUserId, UUID userId, String action) {
+        if (!hostUserId.equals(userId)) {
+            throw new IllegalStateException("Only the host can " + action);
+        }
+    }
+
+    public static void checkJoinable(Game.GameState state) {
+        if (state != Game.GameState.WAITING) {
+            throw new IllegalStateException("Game is not accepting new players");
+        }
+    }
+
+    public static void checkStartable(Game.GameState state, Integer numberOfSpies, int players) {
+        if (state != Game.GameState.WAITING) {
+            throw new IllegalStateException("Game is already started or finished");
+        }
+        if (numberOfSpies == null || numberOfSpies < 1 || numberOfSpies >= players) {
+            throw new IllegalArgumentException("Invalid number of spies");
+        }
+    }
+
+    public static void checkRunning(Game.GameState state) {
+        if (state != Game.GameState.RUNNING) {
+            throw new IllegalStateException("Game is not running");
+        }
+    }
+
+    /**
+     * The role shown to a user: none for non-players and before the game starts.
+     */
+    public static PlayerGameView.Role role(Game.GameState state, boolean player, boolean spy) {
+        if (!player || state == Game.GameState.WAITING) {
+            return null;
+        }
+        return spy ? PlayerGameView.Role.SPY : PlayerGameView.Role.CIVILIAN;
+    }
+
+    public static String word(Game.GameState state, boolean player, boolean spy, String civilianWord, String spyWord) {
+        if (!player || state == Game.GameState.WAITING) {
+            return null;
+        }
+        return spy ? spyWord : civilianWord;
+    }
+
+    public static String civilianWord(Random random) {
+        return CIVILIAN_WORDS[random.nextInt(CIVILIAN_WORDS.length)];
+    }
+
+    public static String spyWord(Random random) {
+        return SPY_WORDS[random.nextInt(SPY_WORDS.length)];
+    }
+
+    public static Set<UUID> pickSpies(List<UUID> players, int numberOfSpies) {
+        List<UUID> shuffled = new ArrayList<>(players);
+        Collections.shuffle(shuffled);
+        return new HashSet<>(shuffled.subList(0, numberOfSpies));
+    }
+
+    /**
+     * Maps a join code index (below {@link #JOIN_CODE_SPACE}) to its code. Consecutive indexes get
+     * unrelated-looking codes, and distinct indexes distinct codes.
+     */
+    public static String joinCode(long index) {
+        long codeIndex = (MULTIPLIER * index + OFFSET) % JOIN_CODE_SPACE;
+        char[] code = new char[JOIN_CODE_LENGTH];
+        for (int i = JOIN_CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = (char) ('A' + codeIndex % 26);
+            codeIndex /= 26;
+        }
+        return new String(code);
+    }
+}
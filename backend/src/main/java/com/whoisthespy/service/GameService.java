@@ -1,149 +1,254 @@
 package com.whoisthespy.service;
 
 import com.whoisthespy.entity.Game;
-import com.whoisthespy.entity.User;
 import com.whoisthespy.repository.GameRepository;
-import com.whoisthespy.repository.UserRepository;
+import com.whoisthespy.repository.GameSummary;
 import com.whoisthespy.service.NameGenerationService.GeneratedName;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Consumer;
 
+/**
+ * Game operations over the {@link GameStateEngine}. Operations that change a game take an
+ * {@code onApplied} callback, which receives the resulting snapshot before the game is unlocked;
+ * callers publish the game's events from it so that they go out in sequence order.
+ */
 @Service
 @RequiredArgsConstructor
 public class GameService {
     private final GameRepository gameRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final NameGenerationService nameGenerationService;
+    private final GameStateEngine gameStateEngine;
+    private final JoinCodeAllocator joinCodeAllocator;
     
-    private static final String CIVILIAN_WORDS = "cat,dog,house,car,tree,book,phone,computer,table,chair";
-    private static final String SPY_WORDS = "animal,pet,home,vehicle,plant,object,device,machine,furniture,seat";
+    private static final int MAX_JOIN_CODE_ATTEMPTS = 3;
     
+    @Timed(value = "game.service", extraTags = {"operation", "createGame"})
     public Game createGame(UUID hostUserId) {
-        User host = userRepository.findById(hostUserId)
-            .orElseThrow(() -> new IllegalArgumentException("Host user not found: " + hostUserId));
-        
-        Game game = new Game();
-        game.setJoinCode(generateJoinCode());
-        game.setHostUserId(hostUserId);
-        game.setPlayers(new ArrayList<>(List.of(hostUserId)));
-        game.setGameState(Game.GameState.WAITING);
+        if (userService.findUser(hostUserId).isEmpty()) {
+            throw new IllegalArgumentException("Host user not found: " + hostUserId);
+        }
         
-        return gameRepository.save(game);
+        // Allocated codes are unique; a clash is only possible with codes issued before the allocator
+        for (int attempt = 1; ; attempt++) {
+            Game game = new Game();
+            game.setJoinCode(joinCodeAllocator.allocate());
+            game.setHostUserId(hostUserId);
+            game.setPlayers(new ArrayList<>(List.of(hostUserId)));
+            game.setGameState(Game.GameState.WAITING);
+            
+            try {
+                return gameStateEngine.register(gameRepository.save(game));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_JOIN_CODE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
     
-    public Game joinGame(String joinCode, UUID userId) {
-        Game game = gameRepository.findByJoinCode(joinCode)
+    @Timed(value = "game.service", extraTags = {"operation", "joinGame"})
+    public Game joinGame(String joinCode, UUID userId, Consumer<Game> onApplied) {
+        UUID gameId = gameStateEngine.findGameIdByJoinCode(joinCode)
             .orElseThrow(() -> new IllegalArgumentException("Game not found with join code: " + joinCode));
         
-        if (game.getGameState() != Game.GameState.WAITING) {
-            throw new IllegalStateException("Game is not accepting new players");
-        }
-        
-        if (!userRepository.existsById(userId)) {
+        if (userService.findUser(userId).isEmpty()) {
             throw new IllegalArgumentException("User not found: " + userId);
         }
         
-        if (!game.getPlayers().contains(userId)) {
+        // A player joining again gets the game unchanged, and no event is published
+        return gameStateEngine.mutateIfChanged(gameId, game -> {
+            GameRules.checkJoinable(game.getGameState());
+            
+            if (game.getPlayers().contains(userId)) {
+                return false;
+            }
             game.getPlayers().add(userId);
-            gameRepository.save(game);
-        }
-        
-        return game;
+            return true;
+        }, onApplied);
     }
     
-    public Game startGame(UUID gameId, UUID hostUserId, Integer numberOfSpies) {
-        Game game = gameRepository.findById(gameId)
-            .orElseThrow(() -> new IllegalArgumentException("Game not found: " + gameId));
-        
-        if (!game.getHostUserId().equals(hostUserId)) {
-            throw new IllegalStateException("Only the host can start the game");
-        }
-        
-        if (game.getGameState() != Game.GameState.WAITING) {
-            throw new IllegalStateException("Game is already started or finished");
-        }
-        
-        if (numberOfSpies == null || numberOfSpies < 1 || numberOfSpies >= game.getPlayers().size()) {
-            throw new IllegalArgumentException("Invalid number of spies");
-        }
-        
-        // Generate name with summary using AI
-        GeneratedName generatedName = nameGenerationService.generateName();
-        game.setGeneratedName(generatedName.getName());
-        game.setGeneratedSummary(generatedName.getSummary());
-        
-        // Assign words (keep for backward compatibility, but use generated name as primary)
-        String[] civilianWords = CIVILIAN_WORDS.split(",");
-        String[] spyWords = SPY_WORDS.split(",");
-        Random random = new Random();
-        
-        game.setCivilianWord(civilianWords[random.nextInt(civilianWords.length)]);
-        game.setSpyWord(spyWords[random.nextInt(spyWords.length)]);
-        
-        // Assign spies
-        List<UUID> players = new ArrayList<>(game.getPlayers());
-        Collections.shuffle(players);
-        game.setSpyUserIds(players.subList(0, numberOfSpies));
-        game.setNumberOfSpies(numberOfSpies);
-        
-        game.setGameState(Game.GameState.RUNNING);
-        game.setCurrentTurnIndex(0);
-        
-        return gameRepository.save(game);
+    @Timed(value = "game.service", extraTags = {"operation", "startGame"})
+    public Game startGame(UUID gameId, UUID hostUserId, Integer numberOfSpies, Consumer<Game> onApplied) {
+        // Picked only once the checks pass, and kept if the mutation runs again
+        GeneratedName[] generatedName = new GeneratedName[1];
+        
+        return gameStateEngine.mutate(gameId, game -> {
+            GameRules.checkHost(game.getHostUserId(), hostUserId, "start the game");
+            GameRules.checkStartable(game.getGameState(), numberOfSpies, game.getPlayers().size());
+            
+            if (generatedName[0] == null) {
+                generatedName[0] = nameGenerationService.generateName(gameId);
+            }
+            game.setGeneratedName(generatedName[0].getName());
+            game.setGeneratedSummary(generatedName[0].getSummary());
+            
+            // Assign words (keep for backward compatibility, but use generated name as primary)
+            Random random = new Random();
+            game.setCivilianWord(GameRules.civilianWord(random));
+            game.setSpyWord(GameRules.spyWord(random));
+            
+            // Assign spies
+            game.setSpyUserIds(GameRules.pickSpies(game.getPlayers(), numberOfSpies));
+            game.setNumberOfSpies(numberOfSpies);
+            
+            game.setGameState(Game.GameState.RUNNING);
+            game.setCurrentTurnIndex(0);
+        }, onApplied);
     }
     
-    public Game nextTurn(UUID gameId, UUID hostUserId) {
-        Game game = gameRepository.findById(gameId)
-            .orElseThrow(() -> new IllegalArgumentException("Game not found: " + gameId));
-        
-        if (!game.getHostUserId().equals(hostUserId)) {
-            throw new IllegalStateException("Only the host can advance turns");
-        }
-        
-        if (game.getGameState() != Game.GameState.RUNNING) {
-            throw new IllegalStateException("Game is not running");
+    @Timed(value = "game.service", extraTags = {"operation", "nextTurn"})
+    public Game nextTurn(UUID gameId, UUID hostUserId, Consumer<Game> onApplied) {
+        return gameStateEngine.mutate(gameId, game -> {
+            GameRules.checkHost(game.getHostUserId(), hostUserId, "advance turns");
+            GameRules.checkRunning(game.getGameState());
+            
+            game.setCurrentTurnIndex(game.getCurrentTurnIndex() + 1);
+        }, onApplied);
+    }
+    
+    /**
+     * Advances the turn on behalf of the turn timer. Fails with {@link IllegalStateException} if the
+     * game is no longer running or has already moved past {@code expectedTurnIndex}.
+     */
+    @Timed(value = "game.service", extraTags = {"operation", "advanceTurn"})
+    public Game advanceTurn(UUID gameId, int expectedTurnIndex, Consumer<Game> onApplied) {
+        return gameStateEngine.mutate(gameId, game -> {
+            if (game.getGameState() != Game.GameState.RUNNING) {
+                throw new IllegalStateException("Game is not running");
+            }
+            
+            if (game.getCurrentTurnIndex() != expectedTurnIndex) {
+                throw new IllegalStateException("Turn has already advanced");
+            }
+            
+            game.setCurrentTurnIndex(expectedTurnIndex + 1);
+        }, onApplied);
+    }
+    
+    /**
+     * Applies the outcome of vote round {@code round}: eliminates {@code eliminatedUserId} (none on
+     * a tie) and finishes the game once one side has won. Fails with {@link IllegalStateException}
+     * if the round has already been resolved.
+     */
+    @Timed(value = "game.service", extraTags = {"operation", "resolveVoteRound"})
+    public Game resolveVoteRound(UUID gameId, int round, UUID eliminatedUserId, Consumer<Game> onApplied) {
+        return gameStateEngine.mutate(gameId, game -> {
+            if (game.getGameState() != Game.GameState.RUNNING) {
+                throw new IllegalStateException("Game is not running");
+            }
+            
+            if (game.getVoteRound() != round) {
+                throw new IllegalStateException("Vote round already resolved");
+            }
+            
+            game.setVoteRound(round + 1);
+            if (eliminatedUserId != null) {
+                game.getEliminatedUserIds().add(eliminatedUserId);
+            }
+            
+            Game.Winner winner = winner(game);
+            if (winner != null) {
+                game.setWinner(winner);
+                game.setGameState(Game.GameState.FINISHED);
+            }
+        }, onApplied);
+    }
+    
+    /**
+     * Civilians win once every spy is eliminated; spies win once they are at least as many as the
+     * remaining civilians.
+     */
+    static Game.Winner winner(Game game) {
+        long spiesLeft = game.getSpyUserIds().stream()
+            .filter(id -> !game.getEliminatedUserIds().contains(id))
+            .count();
+        long civiliansLeft = game.getPlayers().stream()
+            .filter(id -> !game.getSpyUserIds().contains(id) && !game.getEliminatedUserIds().contains(id))
+            .count();
+        if (spiesLeft == 0) {
+            return Game.Winner.CIVILIANS;
         }
-        
-        game.setCurrentTurnIndex(game.getCurrentTurnIndex() + 1);
-        return gameRepository.save(game);
+        return spiesLeft >= civiliansLeft ? Game.Winner.SPIES : null;
     }
     
+    @Timed(value = "game.service", extraTags = {"operation", "getGame"})
     public Game getGame(UUID gameId) {
-        return gameRepository.findById(gameId)
-            .orElseThrow(() -> new IllegalArgumentException("Game not found: " + gameId));
+        return gameStateEngine.snapshot(gameId);
     }
     
-    public Game generateNewName(UUID gameId) {
-        Game game = gameRepository.findById(gameId)
+    /**
+     * Cheap revision of a game for conditional requests: the event sequence while the game is
+     * held in memory, otherwise the persisted version. Like {@link #getPlayerView}, it may be
+     * served by the read replica.
+     */
+    @Transactional(readOnly = true)
+    public String getViewRevision(UUID gameId) {
+        OptionalLong sequence = gameStateEngine.findLiveSequence(gameId);
+        if (sequence.isPresent()) {
+            return "s" + sequence.getAsLong();
+        }
+        return gameRepository.findVersionById(gameId)
+            .map(version -> "v" + version)
             .orElseThrow(() -> new IllegalArgumentException("Game not found: " + gameId));
-        
-        GeneratedName generatedName = nameGenerationService.generateName();
-        game.setGeneratedName(generatedName.getName());
-        game.setGeneratedSummary(generatedName.getSummary());
-        
-        return gameRepository.save(game);
     }
     
-    private String generateJoinCode() {
-        Random random = new Random();
-        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-        StringBuilder code = new StringBuilder();
-        for (int i = 0; i < 6; i++) {
-            code.append(chars.charAt(random.nextInt(chars.length())));
+    /**
+     * Builds the view of a game for one player. Served from memory for live games; otherwise
+     * from column-level queries that skip the full entity graph.
+     * <p>
+     * The player's role and word are only included once the game is finished and roles are
+     * public anyway: nothing ties the caller to {@code userId}, whose ids are broadcast to every
+     * subscriber. Players get their role while the game runs over STOMP, on
+     * {@code /user/queue/role} of the session's user.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = "game.service", extraTags = {"operation", "getPlayerView"})
+    public PlayerGameView getPlayerView(UUID gameId, UUID userId) {
+        Optional<Game> live = gameStateEngine.findLiveSnapshot(gameId);
+        if (live.isPresent()) {
+            Game game = live.get();
+            boolean player = game.getGameState() == Game.GameState.FINISHED && game.getPlayers().contains(userId);
+            boolean spy = game.getSpyUserIds().contains(userId);
+            return new PlayerGameView(game.getId(), game.getJoinCode(), game.getHostUserId(), game.getPlayers(),
+                new ArrayList<>(game.getEliminatedUserIds()), game.getNumberOfSpies(), game.getCurrentTurnIndex(),
+                game.getGeneratedName(), game.getGameState(), game.getVoteRound(), game.getWinner(),
+                GameRules.role(game.getGameState(), player, spy),
+                GameRules.word(game.getGameState(), player, spy, game.getCivilianWord(), game.getSpyWord()),
+                "s" + game.getEventSequence());
         }
         
-        // Ensure uniqueness
-        while (gameRepository.findByJoinCode(code.toString()).isPresent()) {
-            code = new StringBuilder();
-            for (int i = 0; i < 6; i++) {
-                code.append(chars.charAt(random.nextInt(chars.length())));
+        GameSummary summary = gameRepository.findSummaryById(gameId)
+            .orElseThrow(() -> new IllegalArgumentException("Game not found: " + gameId));
+        List<UUID> players = gameRepository.findPlayerIds(gameId);
+        boolean player = summary.getGameState() == Game.GameState.FINISHED && players.contains(userId);
+        boolean spy = player && gameRepository.isSpy(gameId, userId);
+        List<UUID> eliminated = summary.getVoteRound() == 0 ? List.of() : gameRepository.findEliminatedIds(gameId);
+        return new PlayerGameView(summary.getId(), summary.getJoinCode(), summary.getHostUserId(), players,
+            eliminated, summary.getNumberOfSpies(), summary.getCurrentTurnIndex(),
+            summary.getGeneratedName(), summary.getGameState(), summary.getVoteRound(), summary.getWinner(),
+            GameRules.role(summary.getGameState(), player, spy),
+            GameRules.word(summary.getGameState(), player, spy, summary.getCivilianWord(), summary.getSpyWord()),
+            "v" + summary.getVersion());
+    }
+    
+    @Timed(value = "game.service", extraTags = {"operation", "generateNewName"})
+    public Game generateNewName(UUID gameId, Consumer<Game> onApplied) {
+        // Picked only for a game that exists, and kept if the mutation runs again
+        GeneratedName[] generatedName = new GeneratedName[1];
+        
+        return gameStateEngine.mutate(gameId, game -> {
+            if (generatedName[0] == null) {
+                generatedName[0] = nameGenerationService.generateName(gameId);
             }
-        }
-        
-        return code.toString();
+            game.setGeneratedName(generatedName[0].getName());
+            game.setGeneratedSummary(generatedName[0].getSummary());
+        }, onApplied);
     }
 }
-
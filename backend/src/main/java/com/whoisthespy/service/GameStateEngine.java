@@ -0,0 +1,524 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.Game;
+import com.whoisthespy.repository.GameRepository;
+import com.whoisthespy.repository.GameVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Authoritative in-memory state for live (WAITING/RUNNING) games. Only one backend instance may
+ * serve a database, which {@link EngineInstanceLock} enforces; two engines would each hold their
+ * own copy of a game.
+ * <p>
+ * Mutations are applied to a copy of the live game under a per-game lock, and the copy replaces
+ * the live game only once the mutation has succeeded. Plain mutations (joins, turns, names) are
+ * written back by {@link #flushDirty()}; state transitions are written back before the mutation
+ * returns, and a transition that cannot be written leaves the live game as it was. Each
+ * write-back is one transaction: the scalar columns are updated under the entity's
+ * optimistic-lock version, then new players, spies and eliminations are inserted row by row; the
+ * membership collections are never rewritten. Callers always receive a detached snapshot, never
+ * the live instance.
+ * <p>
+ * A version conflict means the game was changed outside this engine (the reactive API). The game
+ * is then reloaded, the mutations not yet written back are applied again to the stored state
+ * (those it now rejects are dropped), and the write is retried. Games changed outside the engine
+ * are also found between writes by {@link #reloadChanged}, which compares stored versions.
+ * <p>
+ * Every successful mutation advances the game's event sequence, which is stamped on the returned
+ * snapshot so broadcasts can be ordered by clients. The sequence of a (re)loaded game starts at
+ * the current epoch millis so that it keeps increasing across evictions of this single instance. Events are published
+ * from the mutation's {@code onApplied} callback, which runs before the game is unlocked, so
+ * they are handed to the broker in sequence order.
+ */
+@Component
+@Slf4j
+public class GameStateEngine {
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final int VERSION_CHECK_BATCH_SIZE = 500;
+
+    private final GameRepository gameRepository;
+    private final GameNamePool gameNamePool;
+    private final JoinCodeAllocator joinCodeAllocator;
+    private final TransactionTemplate transaction;
+    private final long idleEvictionMillis;
+    private final Counter stateWrites;
+    private final Counter stateWriteConflicts;
+
+    private final Map<UUID, LiveGame> liveGames = new ConcurrentHashMap<>();
+    private final Map<String, UUID> gameIdsByJoinCode = new ConcurrentHashMap<>();
+
+    public GameStateEngine(GameRepository gameRepository,
+                           GameNamePool gameNamePool,
+                           JoinCodeAllocator joinCodeAllocator,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.engine.idle-eviction-ms:600000}") long idleEvictionMillis) {
+        this.gameRepository = gameRepository;
+        this.gameNamePool = gameNamePool;
+        this.joinCodeAllocator = joinCodeAllocator;
+        // Loads and write-backs run in their own read-write transaction, which the routing data
+        // source sends to the primary, so live state is never seeded from a lagging read replica
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.idleEvictionMillis = idleEvictionMillis;
+        this.stateWrites = Counter.builder("game.persist.writes")
+            .description("Optimistically locked game state writes")
+            .register(meterRegistry);
+        this.stateWriteConflicts = Counter.builder("game.persist.conflicts")
+            .description("Game state writes rejected by a version conflict; the game is reloaded and retried")
+            .register(meterRegistry);
+        for (Game.GameState state : Game.GameState.values()) {
+            Gauge.builder("game.live", this, engine -> engine.countLive(state))
+                .description("Games held by the in-memory engine")
+                .tag("state", state.name())
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Registers a freshly persisted game so that subsequent operations are served from memory.
+     */
+    public Game register(Game persisted) {
+        LiveGame live = new LiveGame(copyOf(persisted));
+        liveGames.put(persisted.getId(), live);
+        gameIdsByJoinCode.put(persisted.getJoinCode(), persisted.getId());
+        return live.snapshot();
+    }
+
+    public Game snapshot(UUID gameId) {
+        LiveGame live = acquire(gameId);
+        try {
+            live.touch();
+            return live.snapshot();
+        } finally {
+            live.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot only if the game is already held in memory; never touches the database.
+     */
+    public Optional<Game> findLiveSnapshot(UUID gameId) {
+        LiveGame live = liveGames.get(gameId);
+        if (live == null) {
+            return Optional.empty();
+        }
+        live.lock.lock();
+        try {
+            return live.evicted ? Optional.empty() : Optional.of(live.snapshot());
+        } finally {
+            live.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the event sequence of a game held in memory, without copying or loading it.
+     */
+    public OptionalLong findLiveSequence(UUID gameId) {
+        LiveGame live = liveGames.get(gameId);
+        if (live == null) {
+            return OptionalLong.empty();
+        }
+        live.lock.lock();
+        try {
+            return live.evicted ? OptionalLong.empty() : OptionalLong.of(live.sequence);
+        } finally {
+            live.lock.unlock();
+        }
+    }
+
+    public Optional<UUID> findGameIdByJoinCode(String joinCode) {
+        UUID gameId = gameIdsByJoinCode.get(joinCode);
+        if (gameId != null) {
+            return Optional.of(gameId);
+        }
+        return gameRepository.findLiveGameIdByJoinCode(joinCode);
+    }
+
+    /**
+     * Applies {@code mutation} to the live game. The mutation may throw to reject the change,
+     * in which case the live game is left as it was. If the mutation changes
+     * {@link Game#getGameState()} the game is written back synchronously; a game that reaches
+     * FINISHED releases its join code. {@code onApplied} receives the resulting snapshot while the
+     * game is still locked. The mutation may run again if the game has to be reloaded before it is
+     * written back, so it must only depend on the game and its captured arguments.
+     */
+    public Game mutate(UUID gameId, Consumer<Game> mutation, Consumer<Game> onApplied) {
+        return mutateIfChanged(gameId, game -> {
+            mutation.accept(game);
+            return true;
+        }, onApplied);
+    }
+
+    /**
+     * Like {@link #mutate}, but {@code mutation} returns whether it changed the game. If it did not,
+     * the game keeps its sequence and is not marked dirty, and {@code onApplied} is not called.
+     */
+    public Game mutateIfChanged(UUID gameId, Predicate<Game> mutation, Consumer<Game> onApplied) {
+        LiveGame live = acquire(gameId);
+        try {
+            live.touch();
+            Game updated = copyOf(live.game);
+            if (!applyTo(updated, mutation)) {
+                return live.snapshot();
+            }
+            Game snapshot = commit(live, updated, mutation);
+            onApplied.accept(snapshot);
+            return snapshot;
+        } finally {
+            live.lock.unlock();
+        }
+    }
+
+    /**
+     * Finishes the game if no mutation has been applied to it since {@code idleBefore}.
+     * Returns the finished snapshot, or empty if the game was active or already finished.
+     */
+    public Optional<Game> expireIfIdle(UUID gameId, LocalDateTime idleBefore, Consumer<Game> onApplied) {
+        Predicate<Game> expiry = game -> {
+            if (game.getGameState() == Game.GameState.FINISHED || game.getLastActivityAt().isAfter(idleBefore)) {
+                return false;
+            }
+            game.setGameState(Game.GameState.FINISHED);
+            return true;
+        };
+        LiveGame live = acquire(gameId);
+        try {
+            Game updated = copyOf(live.game);
+            if (!applyTo(updated, expiry)) {
+                return Optional.empty();
+            }
+            Game snapshot = commit(live, updated, expiry);
+            onApplied.accept(snapshot);
+            return Optional.of(snapshot);
+        } finally {
+            live.lock.unlock();
+        }
+    }
+
+    public long countLive(Game.GameState state) {
+        return liveGames.values().stream()
+            .filter(live -> live.game.getGameState() == state)
+            .count();
+    }
+
+    @Scheduled(fixedDelayString = "${app.engine.flush-interval-ms:500}")
+    public void flushDirty() {
+        long now = System.currentTimeMillis();
+        for (LiveGame live : liveGames.values()) {
+            live.lock.lock();
+            try {
+                if (live.evicted) {
+                    continue;
+                }
+                if (live.dirty()) {
+                    live.game = persist(live, live.game, null);
+                    live.unwritten.clear();
+                }
+                boolean finished = live.game.getGameState() == Game.GameState.FINISHED;
+                if (finished || now - live.lastAccess > idleEvictionMillis) {
+                    evict(live);
+                }
+            } catch (IllegalStateException e) {
+                log.warn("Dropped game {} from memory: {}", live.game.getId(), e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("Failed to write back game {}", live.game.getId(), e);
+            } finally {
+                live.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reloads the live games whose stored version is ahead of the live one, i.e. that were written
+     * outside this engine, and applies their unwritten mutations again (see {@link #reload}).
+     * {@code onReloaded} receives each reloaded snapshot while the game is still locked. Its
+     * sequence skips a number, so clients detect a gap and re-fetch the game.
+     */
+    public void reloadChanged(Consumer<Game> onReloaded) {
+        List<UUID> gameIds = new ArrayList<>(liveGames.keySet());
+        for (int from = 0; from < gameIds.size(); from += VERSION_CHECK_BATCH_SIZE) {
+            List<UUID> batch = gameIds.subList(from, Math.min(from + VERSION_CHECK_BATCH_SIZE, gameIds.size()));
+            List<GameVersion> stored = transaction.execute(status -> gameRepository.findVersionsByIdIn(batch));
+            for (GameVersion version : stored) {
+                LiveGame live = liveGames.get(version.getId());
+                if (live != null && version.getVersion() > live.game.getVersion()) {
+                    reloadChanged(live, version.getVersion(), onReloaded);
+                }
+            }
+        }
+    }
+
+    private void reloadChanged(LiveGame live, long storedVersion, Consumer<Game> onReloaded) {
+        live.lock.lock();
+        try {
+            // Written back by this engine since the versions were read
+            if (live.evicted || storedVersion <= live.game.getVersion()) {
+                return;
+            }
+            reload(live);
+            live.sequence++;
+            onReloaded.accept(live.snapshot());
+        } catch (IllegalStateException e) {
+            log.warn("Dropped game {} from memory: {}", live.game.getId(), e.getMessage());
+        } finally {
+            live.lock.unlock();
+        }
+    }
+
+    /**
+     * Makes {@code updated}, a copy of the live game with {@code mutation} applied, the live game.
+     * A state transition is written back first, and if that fails the live game is left as it was.
+     */
+    private Game commit(LiveGame live, Game updated, Predicate<Game> mutation) {
+        if (updated.getGameState() == live.game.getGameState()) {
+            live.game = updated;
+            live.unwritten.add(mutation);
+        } else {
+            live.game = persist(live, updated, mutation);
+            live.unwritten.clear();
+            if (live.game.getGameState() == Game.GameState.FINISHED) {
+                joinCodeAllocator.release(live.game.getJoinCode());
+            }
+        }
+        live.sequence++;
+        return live.snapshot();
+    }
+
+    // Applies a mutation and stamps the activity and finish times; false if nothing changed
+    private static boolean applyTo(Game game, Predicate<Game> mutation) {
+        Game.GameState previousState = game.getGameState();
+        if (!mutation.test(game)) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        game.setLastActivityAt(now);
+        if (game.getGameState() == Game.GameState.FINISHED && previousState != Game.GameState.FINISHED) {
+            game.setFinishedAt(now);
+        }
+        return true;
+    }
+
+    private LiveGame acquire(UUID gameId) {
+        while (true) {
+            LiveGame live = load(gameId);
+            live.lock.lock();
+            if (!live.evicted) {
+                return live;
+            }
+            live.lock.unlock();
+        }
+    }
+
+    private LiveGame load(UUID gameId) {
+        LiveGame live = liveGames.get(gameId);
+        if (live != null) {
+            return live;
+        }
+        Game loaded = fetch(gameId);
+        if (loaded == null) {
+            throw new IllegalArgumentException("Game not found: " + gameId);
+        }
+        LiveGame candidate = new LiveGame(loaded);
+        live = liveGames.putIfAbsent(gameId, candidate);
+        if (live == null) {
+            // Codes of finished games are released and may already belong to a live game
+            if (loaded.getGameState() != Game.GameState.FINISHED) {
+                gameIdsByJoinCode.putIfAbsent(loaded.getJoinCode(), gameId);
+            }
+            return candidate;
+        }
+        return live;
+    }
+
+    private Game fetch(UUID gameId) {
+        return transaction.execute(status -> gameRepository.findById(gameId)
+            .map(GameStateEngine::copyOf)
+            .orElse(null));
+    }
+
+    /**
+     * Writes {@code target} back and returns the game as written. On a version conflict the game
+     * is reloaded, the unwritten mutations and then {@code pending} (if any) are applied to it
+     * again, and the write is retried. A game that keeps conflicting is evicted, and the write
+     * fails with {@link IllegalStateException}, as it does if {@code pending} no longer applies.
+     */
+    private Game persist(LiveGame live, Game target, Predicate<Game> pending) {
+        for (int attempt = 1; ; attempt++) {
+            if (write(live, target)) {
+                return target;
+            }
+            stateWriteConflicts.increment();
+            if (attempt == MAX_WRITE_ATTEMPTS) {
+                evict(live);
+                throw new IllegalStateException("Game was modified concurrently: " + target.getId());
+            }
+            target = reload(live);
+            if (pending != null) {
+                target = copyOf(target);
+                if (!applyTo(target, pending)) {
+                    throw new IllegalStateException("Game was modified concurrently: " + target.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the scalar state under the optimistic-lock version, then inserts the new membership
+     * rows, in one transaction. Returns false, having written nothing, on a version conflict.
+     */
+    private boolean write(LiveGame live, Game game) {
+        stateWrites.increment();
+        boolean written = Boolean.TRUE.equals(transaction.execute(status -> {
+            if (gameRepository.updateState(game) != 1) {
+                return false;
+            }
+            List<UUID> players = game.getPlayers();
+            for (int seat = 0; seat < players.size(); seat++) {
+                if (!live.persistedPlayers.contains(players.get(seat))) {
+                    gameRepository.insertPlayer(game.getId(), players.get(seat), seat);
+                }
+            }
+            for (UUID spyId : game.getSpyUserIds()) {
+                if (!live.persistedSpies.contains(spyId)) {
+                    gameRepository.insertSpy(game.getId(), spyId);
+                }
+            }
+            for (UUID eliminatedId : game.getEliminatedUserIds()) {
+                if (!live.persistedEliminations.contains(eliminatedId)) {
+                    gameRepository.insertElimination(game.getId(), eliminatedId);
+                }
+            }
+            return true;
+        }));
+        if (written) {
+            game.setVersion(game.getVersion() + 1);
+            live.persistedPlayers.addAll(game.getPlayers());
+            live.persistedSpies.addAll(game.getSpyUserIds());
+            live.persistedEliminations.addAll(game.getEliminatedUserIds());
+        }
+        return written;
+    }
+
+    /**
+     * Replaces the live game with its stored state and applies the unwritten mutations to it
+     * again, dropping those the stored state rejects. The sequence skips a number, so clients
+     * see a gap at the game's next event and re-fetch it.
+     */
+    private Game reload(LiveGame live) {
+        UUID gameId = live.game.getId();
+        Game game = fetch(gameId);
+        if (game == null) {
+            evict(live);
+            throw new IllegalStateException("Game was deleted concurrently: " + gameId);
+        }
+        live.reset(game);
+        List<Predicate<Game>> applied = new ArrayList<>();
+        for (Predicate<Game> mutation : live.unwritten) {
+            Game candidate = copyOf(game);
+            try {
+                if (applyTo(candidate, mutation)) {
+                    game = candidate;
+                    applied.add(mutation);
+                }
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                log.warn("Dropped a change to game {} that conflicts with a concurrent one: {}", gameId, e.getMessage());
+            }
+        }
+        live.game = game;
+        live.unwritten = applied;
+        live.sequence++;
+        return game;
+    }
+
+    private void evict(LiveGame live) {
+        live.evicted = true;
+        liveGames.remove(live.game.getId(), live);
+        gameIdsByJoinCode.remove(live.game.getJoinCode(), live.game.getId());
+        gameNamePool.endSession(live.game.getId());
+    }
+
+    static Game copyOf(Game source) {
+        Game copy = new Game();
+        copy.setId(source.getId());
+        copy.setJoinCode(source.getJoinCode());
+        copy.setHostUserId(source.getHostUserId());
+        copy.setPlayers(new ArrayList<>(source.getPlayers()));
+        copy.setNumberOfSpies(source.getNumberOfSpies());
+        copy.setSpyUserIds(new HashSet<>(source.getSpyUserIds()));
+        copy.setEliminatedUserIds(new HashSet<>(source.getEliminatedUserIds()));
+        copy.setCurrentTurnIndex(source.getCurrentTurnIndex());
+        copy.setCivilianWord(source.getCivilianWord());
+        copy.setSpyWord(source.getSpyWord());
+        copy.setGeneratedName(source.getGeneratedName());
+        copy.setGeneratedSummary(source.getGeneratedSummary());
+        copy.setGameState(source.getGameState());
+        copy.setVoteRound(source.getVoteRound());
+        copy.setWinner(source.getWinner());
+        copy.setVersion(source.getVersion());
+        copy.setLastActivityAt(source.getLastActivityAt());
+        copy.setFinishedAt(source.getFinishedAt());
+        return copy;
+    }
+
+    private static class LiveGame {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Game game;
+        private Set<UUID> persistedPlayers;
+        private Set<UUID> persistedSpies;
+        private Set<UUID> persistedEliminations;
+        // Mutations applied since the last write-back, applied again if the game is reloaded
+        private List<Predicate<Game>> unwritten = new ArrayList<>();
+        private boolean evicted;
+        private long sequence = System.currentTimeMillis();
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        LiveGame(Game game) {
+            reset(game);
+        }
+
+        void reset(Game stored) {
+            game = stored;
+            persistedPlayers = new HashSet<>(stored.getPlayers());
+            persistedSpies = new HashSet<>(stored.getSpyUserIds());
+            persistedEliminations = new HashSet<>(stored.getEliminatedUserIds());
+        }
+
+        boolean dirty() {
+            return !unwritten.isEmpty();
+        }
+
+        Game snapshot() {
+            Game copy = copyOf(game);
+            copy.setEventSequence(sequence);
+            return copy;
+        }
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.repository.GameRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out 6-letter join codes without probing the games table.
+ * <p>
+ * Each instance reserves a block of indexes from the shared {@code join_code_block_seq} and
+ * serves codes from it locally. Indexes are mapped through a fixed permutation of the 26^6 code
+ * space, so consecutive games get unrelated-looking codes and no two instances hand out the same
+ * code until the whole space has been used. Codes of finished games are released and reused
+ * before fresh ones.
+ */
+@Component
+public class JoinCodeAllocator {
+    private static final int MAX_RELEASED = 10_000;
+    
+    private final GameRepository gameRepository;
+    private final int blockSize;
+    
+    private final Queue<String> released = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger releasedCount = new AtomicInteger();
+    // Not synchronized: reserving a block hits the database and must not pin a virtual thread
+    private final ReentrantLock blockLock = new ReentrantLock();
+    private long nextIndex;
+    private long blockEnd;
+    
+    public JoinCodeAllocator(GameRepository gameRepository,
+                             @Value("${app.join-codes.block-size:256}") int blockSize) {
+        this.gameRepository = gameRepository;
+        this.blockSize = blockSize;
+    }
+    
+    public String allocate() {
+        String code = released.poll();
+        if (code != null) {
+            releasedCount.decrementAndGet();
+            return code;
+        }
+        return GameRules.joinCode(nextIndex());
+    }
+    
+    /**
+     * Returns the code of a game that no longer holds it (finished or archived).
+     */
+    public void release(String joinCode) {
+        if (releasedCount.incrementAndGet() <= MAX_RELEASED) {
+            released.offer(joinCode);
+        } else {
+            releasedCount.decrementAndGet();
+        }
+    }
+    
+    private long nextIndex() {
+        blockLock.lock();
+        try {
+            if (nextIndex >= blockEnd) {
+                long block = gameRepository.nextJoinCodeBlock();
+                nextIndex = block * blockSize;
+                blockEnd = nextIndex + blockSize;
+            }
+            return nextIndex++ % GameRules.JOIN_CODE_SPACE;
+        } finally {
+            blockLock.unlock();
+        }
+    }
+}
@@ -1,17 +1,17 @@
 package com.whoisthespy.service;
 
-import com.whoisthespy.entity.GameName;
-import com.whoisthespy.repository.GameNameRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class NameGenerationService {
     
-    private final GameNameRepository gameNameRepository;
+    private final GameNamePool gameNamePool;
     
     public static class GeneratedName {
         private String name;
@@ -32,32 +32,22 @@ public class NameGenerationService {
     }
     
     public GeneratedName generateName() {
-        try {
-            log.info("Fetching random location name from database");
-            
-            // Get a random location name from the database
-            GameName gameName = gameNameRepository.findRandomByCategory("location");
-            
-            if (gameName == null) {
-                log.warn("No location names found in database, using fallback");
-                return new GeneratedName("Unknown Location", "A location for discussion in the game.");
-            }
-            
-            // Generate a summary based on the location name
-            String summary = generateSummaryForLocation(gameName.getName());
-            
-            return new GeneratedName(gameName.getName(), summary);
-            
-        } catch (Exception e) {
-            log.error("Error generating name from database", e);
-            throw new RuntimeException("Failed to generate name: " + e.getMessage(), e);
-        }
+        return toGeneratedName(gameNamePool.pick(GameRules.LOCATION_CATEGORY));
+    }
+    
+    /**
+     * Picks a location name that has not been used yet for the given game.
+     */
+    public GeneratedName generateName(UUID gameId) {
+        return toGeneratedName(gameNamePool.pick(GameRules.LOCATION_CATEGORY, gameId));
     }
     
-    private String generateSummaryForLocation(String locationName) {
-        // Generate a simple summary for the location
-        // This is a basic implementation - you could enhance this with more detailed descriptions
-        return "A famous and recognizable location that players can discuss. " +
-               "This place is well-known around the world and has cultural or historical significance.";
+    private GeneratedName toGeneratedName(String locationName) {
+        if (locationName == null) {
+            log.warn("No location names loaded, using fallback");
+            return new GeneratedName(GameRules.FALLBACK_LOCATION, GameRules.FALLBACK_LOCATION_SUMMARY);
+        }
+        
+        return new GeneratedName(locationName, GameRules.LOCATION_SUMMARY);
     }
 }
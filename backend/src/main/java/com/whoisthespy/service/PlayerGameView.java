@@ -0,0 +1,36 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.Game;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * What one player needs to render a game: the shared fields plus, once the game is finished,
+ * their own role and word. {@code revision} changes whenever the game changes and is used as the
+ * HTTP ETag.
+ */
+@Data
+@AllArgsConstructor
+public class PlayerGameView {
+    public enum Role {
+        CIVILIAN, SPY
+    }
+    
+    private UUID id;
+    private String joinCode;
+    private UUID hostUserId;
+    private List<UUID> players;
+    private List<UUID> eliminatedUserIds;
+    private Integer numberOfSpies;
+    private Integer currentTurnIndex;
+    private String generatedName;
+    private Game.GameState gameState;
+    private Integer voteRound;
+    private Game.Winner winner;
+    private Role role;
+    private String word;
+    private String revision;
+}
@@ -0,0 +1,110 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.Game;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Roles and words of started games, keyed by game and player.
+ * <p>
+ * Roles are assigned once when a game starts and are private to each player, so they are kept out
+ * of the shared game payloads and delivered on {@code /user/queue/role} instead. Holding them here
+ * lets a reconnecting player get their role without loading the game; only a game started before a
+ * restart is rebuilt from the game engine, once. Entries are dropped after a period without lookups.
+ */
+@Component
+public class RoleRegistry {
+    private final GameStateEngine gameStateEngine;
+    private final long idleMillis;
+
+    private final Map<UUID, GameRoles> games = new ConcurrentHashMap<>();
+
+    public RoleRegistry(GameStateEngine gameStateEngine,
+                        @Value("${app.roles.idle-ms:3600000}") long idleMillis) {
+        this.gameStateEngine = gameStateEngine;
+        this.idleMillis = idleMillis;
+    }
+
+    /**
+     * Records the roles of a started game and returns each player's assignment.
+     */
+    public Map<UUID, RoleAssignment> assign(Game game) {
+        GameRoles roles = GameRoles.of(game);
+        games.put(game.getId(), roles);
+        Map<UUID, RoleAssignment> assignments = new HashMap<>();
+        for (UUID userId : roles.spies.keySet()) {
+            assignments.put(userId, roles.assignment(game.getId(), userId));
+        }
+        return assignments;
+    }
+
+    /**
+     * Returns the role of a player, or empty if the user is not a player or the game has not started.
+     */
+    public Optional<RoleAssignment> findRole(UUID gameId, UUID userId) {
+        GameRoles roles = games.get(gameId);
+        if (roles == null) {
+            Game game = gameStateEngine.snapshot(gameId);
+            if (game.getGameState() == Game.GameState.WAITING) {
+                return Optional.empty();
+            }
+            roles = games.computeIfAbsent(gameId, id -> GameRoles.of(game));
+        }
+        roles.lastLookupAt = System.currentTimeMillis();
+        if (!roles.spies.containsKey(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(roles.assignment(gameId, userId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.roles.idle-ms:3600000}")
+    public void dropIdle() {
+        long now = System.currentTimeMillis();
+        games.values().removeIf(roles -> now - roles.lastLookupAt > idleMillis);
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class RoleAssignment {
+        private UUID gameId;
+        private PlayerGameView.Role role;
+        private String word;
+    }
+
+    private static class GameRoles {
+        // Whether each player is a spy; the words are shared by all players of the same role
+        private final Map<UUID, Boolean> spies;
+        private final String civilianWord;
+        private final String spyWord;
+        private volatile long lastLookupAt = System.currentTimeMillis();
+
+        private GameRoles(Map<UUID, Boolean> spies, String civilianWord, String spyWord) {
+            this.spies = spies;
+            this.civilianWord = civilianWord;
+            this.spyWord = spyWord;
+        }
+
+        static GameRoles of(Game game) {
+            Map<UUID, Boolean> spies = new HashMap<>();
+            for (UUID userId : game.getPlayers()) {
+                spies.put(userId, game.getSpyUserIds().contains(userId));
+            }
+            return new GameRoles(spies, game.getCivilianWord(), game.getSpyWord());
+        }
+
+        RoleAssignment assignment(UUID gameId, UUID userId) {
+            return spies.get(userId)
+                ? new RoleAssignment(gameId, PlayerGameView.Role.SPY, spyWord)
+                : new RoleAssignment(gameId, PlayerGameView.Role.CIVILIAN, civilianWord);
+        }
+    }
+}
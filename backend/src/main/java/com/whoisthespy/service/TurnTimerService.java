@@ -0,0 +1,192 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.Game;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional per-game turn timers, driven by one shared scheduler thread.
+ * <p>
+ * Each timer is a deadline in a map, so memory grows with the number of timed games and not with
+ * threads or scheduled tasks. On every tick the scheduler publishes an unsequenced countdown
+ * {@code TICK} on {@code /topic/game/{id}/turn} for each timed game and advances the turn of games
+ * whose deadline has passed. Timers live in the instance they were enabled on and are dropped
+ * when their game finishes, or at their next deadline if it stopped running elsewhere.
+ * <p>
+ * {@code game.turn.timer.jitter} records how late each tick starts relative to its schedule, and
+ * {@code game.turn.timer.lateness} how late each automatic advance happens after its deadline.
+ */
+@Component
+@Slf4j
+public class TurnTimerService {
+    public static final int MIN_TURN_SECONDS = 5;
+    public static final int MAX_TURN_SECONDS = 600;
+
+    private final GameService gameService;
+    private final GameEventPublisher gameEventPublisher;
+    private final long tickNanos;
+    private final Timer tickJitter;
+    private final Timer advanceLateness;
+
+    private final Map<UUID, TurnTimer> timers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        runnable -> Thread.ofPlatform().name("turn-timer").daemon().unstarted(runnable));
+    private long nextTickNanos;
+
+    public TurnTimerService(GameService gameService,
+                            GameEventPublisher gameEventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.turn-timer.tick-ms:1000}") long tickMillis) {
+        this.gameService = gameService;
+        this.gameEventPublisher = gameEventPublisher;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.tickJitter = Timer.builder("game.turn.timer.jitter")
+            .description("Delay between a turn timer tick's scheduled and actual start")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.advanceLateness = Timer.builder("game.turn.timer.lateness")
+            .description("Delay between a turn deadline and its automatic advance")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        Gauge.builder("game.turn.timers", timers, Map::size)
+            .description("Games with an active turn timer")
+            .register(meterRegistry);
+
+        this.nextTickNanos = System.nanoTime() + tickNanos;
+        scheduler.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Starts (or replaces) the timer of a running game; the current turn gets the full duration.
+     */
+    public void enable(Game game, int turnSeconds) {
+        checkTurnSeconds(turnSeconds);
+        if (game.getGameState() != Game.GameState.RUNNING) {
+            throw new IllegalStateException("Game is not running");
+        }
+        TurnTimer timer = new TurnTimer(TimeUnit.SECONDS.toNanos(turnSeconds));
+        timer.restart(game.getCurrentTurnIndex(), System.nanoTime());
+        timers.put(game.getId(), timer);
+    }
+
+    public static void checkTurnSeconds(int turnSeconds) {
+        if (turnSeconds < MIN_TURN_SECONDS || turnSeconds > MAX_TURN_SECONDS) {
+            throw new IllegalArgumentException(
+                "Turn duration must be between " + MIN_TURN_SECONDS + " and " + MAX_TURN_SECONDS + " seconds");
+        }
+    }
+
+    public void disable(UUID gameId) {
+        timers.remove(gameId);
+    }
+
+    /**
+     * Gives the new turn of a manually advanced game the full duration.
+     */
+    public void turnAdvanced(Game game) {
+        TurnTimer timer = timers.get(game.getId());
+        if (timer != null) {
+            timer.restart(game.getCurrentTurnIndex(), System.nanoTime());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        tickJitter.record(Math.max(0, now - nextTickNanos), TimeUnit.NANOSECONDS);
+        nextTickNanos += tickNanos;
+        // A tick that overran its period would otherwise be reported as jitter forever
+        if (nextTickNanos < now) {
+            nextTickNanos = now + tickNanos;
+        }
+        tickTimers(now);
+    }
+
+    /**
+     * Publishes the countdown of every timed game and advances the turns whose deadline is before
+     * {@code now}, a {@link System#nanoTime()} reading.
+     */
+    void tickTimers(long now) {
+        for (Map.Entry<UUID, TurnTimer> entry : timers.entrySet()) {
+            try {
+                tick(entry.getKey(), entry.getValue(), now);
+            } catch (RuntimeException e) {
+                log.warn("Turn timer tick failed for game {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    private void tick(UUID gameId, TurnTimer timer, long now) {
+        int turnIndex;
+        long remainingNanos;
+        synchronized (timer) {
+            turnIndex = timer.turnIndex;
+            remainingNanos = timer.deadlineNanos - now;
+        }
+        if (remainingNanos > 0) {
+            gameEventPublisher.turnTick(gameId, turnIndex, remainingSeconds(remainingNanos));
+            return;
+        }
+
+        advanceLateness.record(-remainingNanos, TimeUnit.NANOSECONDS);
+        Game game;
+        try {
+            game = gameService.advanceTurn(gameId, turnIndex, gameEventPublisher::turnChanged);
+        } catch (IllegalStateException e) {
+            // The host advanced concurrently, or the game stopped running
+            try {
+                game = gameService.getGame(gameId);
+            } catch (IllegalArgumentException notFound) {
+                // Archived since
+                timers.remove(gameId, timer);
+                return;
+            }
+            if (game.getGameState() != Game.GameState.RUNNING) {
+                timers.remove(gameId, timer);
+                return;
+            }
+            timer.restart(game.getCurrentTurnIndex(), now);
+            return;
+        } catch (IllegalArgumentException e) {
+            timers.remove(gameId, timer);
+            return;
+        }
+        timer.restart(game.getCurrentTurnIndex(), now);
+        gameEventPublisher.turnTick(gameId, game.getCurrentTurnIndex(), remainingSeconds(timer.durationNanos));
+    }
+
+    private static long remainingSeconds(long remainingNanos) {
+        return (remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static class TurnTimer {
+        private final long durationNanos;
+        private int turnIndex;
+        private long deadlineNanos;
+
+        TurnTimer(long durationNanos) {
+            this.durationNanos = durationNanos;
+        }
+
+        synchronized void restart(int turnIndex, long now) {
+            this.turnIndex = turnIndex;
+            this.deadlineNanos = now + durationNanos;
+        }
+    }
+}
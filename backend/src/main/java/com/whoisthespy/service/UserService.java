@@ -2,18 +2,66 @@ package com.whoisthespy.service;
 
 import com.whoisthespy.entity.User;
 import com.whoisthespy.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
+    public static final String USERS_CACHE = "users";
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_FETCH_SIZE = 500;
+    
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+    
+    public enum CreationStatus {
+        CREATED, ALREADY_EXISTS, DUPLICATE_IN_REQUEST, INVALID
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class UserPage {
+        private List<User> users;
+        /** Opaque cursor for the next page, or {@code null} on the last page. */
+        private String nextCursor;
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class CreationResult {
+        private String username;
+        private CreationStatus status;
+        private User user;
+    }
     
+    @CachePut(cacheNames = USERS_CACHE, key = "#result.id")
     public User createUser(String username) {
         if (userRepository.existsByUsername(username)) {
             throw new IllegalArgumentException("Username already exists: " + username);
@@ -23,6 +71,59 @@ public class UserService {
         return userRepository.save(user);
     }
     
+    /**
+     * Creates a user for every new username in one transaction. Existing names are found with a
+     * single query and the inserts go out as JDBC batches (see {@code hibernate.jdbc.batch_size}).
+     * Returns one result per requested username, in request order. A name taken concurrently
+     * fails the whole batch with a {@code DataIntegrityViolationException} at commit. The created
+     * users are cached once the batch has committed.
+     */
+    @Transactional
+    public List<CreationResult> createUsers(List<String> usernames) {
+        if (usernames.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " usernames per batch");
+        }
+        
+        Set<String> requested = new HashSet<>();
+        for (String username : usernames) {
+            if (username != null && !username.isBlank()) {
+                requested.add(username);
+            }
+        }
+        Set<String> existing = requested.isEmpty()
+            ? Set.of()
+            : new HashSet<>(userRepository.findExistingUsernames(requested));
+        
+        List<CreationResult> results = new ArrayList<>(usernames.size());
+        List<User> newUsers = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String username : usernames) {
+            if (username == null || username.isBlank()) {
+                results.add(new CreationResult(username, CreationStatus.INVALID, null));
+            } else if (existing.contains(username)) {
+                results.add(new CreationResult(username, CreationStatus.ALREADY_EXISTS, null));
+            } else if (!seen.add(username)) {
+                results.add(new CreationResult(username, CreationStatus.DUPLICATE_IN_REQUEST, null));
+            } else {
+                User user = new User();
+                user.setUsername(username);
+                newUsers.add(user);
+                results.add(new CreationResult(username, CreationStatus.CREATED, user));
+            }
+        }
+        // Ids are generated on persist, so the users in the results are complete before the flush
+        userRepository.saveAll(newUsers);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Cache cache = cacheManager.getCache(USERS_CACHE);
+                newUsers.forEach(user -> cache.put(user.getId(), user));
+            }
+        });
+        return results;
+    }
+    
+    @CachePut(cacheNames = USERS_CACHE, key = "#id")
     public User updateUser(UUID id, String username) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("User not found: " + id));
@@ -35,6 +136,7 @@ public class UserService {
         return userRepository.save(user);
     }
     
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#id")
     public void deleteUser(UUID id) {
         if (!userRepository.existsById(id)) {
             throw new IllegalArgumentException("User not found: " + id);
@@ -42,13 +144,76 @@ public class UserService {
         userRepository.deleteById(id);
     }
     
+    @Cacheable(USERS_CACHE)
     public User getUserById(UUID id) {
         return userRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("User not found: " + id));
     }
     
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    /**
+     * Cached lookup for hot paths such as creating and joining games. Missing users are not
+     * cached, so a user is visible as soon as it has been created.
+     */
+    @Cacheable(cacheNames = USERS_CACHE, unless = "#result == null")
+    public Optional<User> findUser(UUID id) {
+        return userRepository.findById(id);
+    }
+    
+    /**
+     * Returns up to {@code limit} users in (created_at, id) order, starting after {@code cursor}
+     * ({@code null} for the first page). Each page is an index range scan, however deep.
+     */
+    @Transactional(readOnly = true)
+    public UserPage getUsers(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<User> users;
+        if (cursor == null) {
+            users = userRepository.findFirstPage(limit);
+        } else {
+            User after = decodeCursor(cursor);
+            users = userRepository.findPageAfter(after.getCreatedAt(), after.getId(), limit);
+        }
+        String nextCursor = users.size() < limit ? null : encodeCursor(users.get(users.size() - 1));
+        return new UserPage(users, nextCursor);
+    }
+    
+    /**
+     * Passes every user to {@code consumer} in (created_at, id) order, reading them through a
+     * server-side cursor so that only one fetch of rows is held in memory at a time.
+     */
+    @Transactional(readOnly = true)
+    public void streamUsers(Consumer<User> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "SELECT id, username, created_at FROM users ORDER BY created_at, id");
+            // The PostgreSQL driver only uses a cursor when a fetch size is set and autocommit is off
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            consumer.accept(new User(
+                resultSet.getObject("id", UUID.class),
+                resultSet.getString("username"),
+                resultSet.getObject("created_at", LocalDateTime.class)));
+        });
+    }
+    
+    static String encodeCursor(User last) {
+        String position = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Returns the (created_at, id) position encoded in {@code cursor} as a detached user.
+     */
+    static User decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new User(UUID.fromString(position[1]), null, LocalDateTime.parse(position[0]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
     }
 }
 
@@ -0,0 +1,187 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.Game;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Vote rounds for running games, tallied in memory.
+ * <p>
+ * A round opens with the first vote and lets every player who has not been eliminated vote for
+ * another remaining player; a vote may be changed until the round closes. Ballots go into a
+ * per-round concurrent map under the round's read lock, so a burst of votes does not serialize
+ * and takes no database round trips; closing takes the write lock, so no ballot lands after the
+ * tally is taken. The round closes when every eligible player has voted, or when the host closes it. Only its outcome
+ * (the eliminated player, if the vote was not tied, and the winner) goes through the game engine.
+ */
+@Component
+@Slf4j
+public class VotingService {
+    private final GameService gameService;
+    private final GameEventPublisher gameEventPublisher;
+    private final TurnTimerService turnTimerService;
+    private final long roundTtlMillis;
+    private final Counter votes;
+
+    private final Map<UUID, VoteRound> rounds = new ConcurrentHashMap<>();
+
+    public VotingService(GameService gameService,
+                         GameEventPublisher gameEventPublisher,
+                         TurnTimerService turnTimerService,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.voting.round-ttl-ms:3600000}") long roundTtlMillis) {
+        this.gameService = gameService;
+        this.gameEventPublisher = gameEventPublisher;
+        this.turnTimerService = turnTimerService;
+        this.roundTtlMillis = roundTtlMillis;
+        this.votes = Counter.builder("game.votes")
+            .description("Votes cast in vote rounds")
+            .register(meterRegistry);
+    }
+
+    public void castVote(UUID gameId, UUID voterId, UUID targetId) {
+        VoteRound round = openRound(gameId);
+        if (!round.voters.contains(voterId)) {
+            throw new IllegalArgumentException("Not an eligible voter: " + voterId);
+        }
+        if (!round.voters.contains(targetId) || targetId.equals(voterId)) {
+            throw new IllegalArgumentException("Not an eligible target: " + targetId);
+        }
+
+        int votesCast;
+        round.lock.readLock().lock();
+        try {
+            if (round.closed) {
+                throw new IllegalStateException("Vote round is closed");
+            }
+            round.ballots.put(voterId, targetId);
+            votesCast = round.ballots.size();
+        } finally {
+            round.lock.readLock().unlock();
+        }
+        votes.increment();
+        gameEventPublisher.votesChanged(gameId, round.number, votesCast, round.voters.size());
+        if (votesCast == round.voters.size()) {
+            close(gameId, round);
+        }
+    }
+
+    public void closeRound(UUID gameId, UUID hostUserId) {
+        Game game = gameService.getGame(gameId);
+        if (!game.getHostUserId().equals(hostUserId)) {
+            throw new IllegalStateException("Only the host can close a vote round");
+        }
+        VoteRound round = rounds.get(gameId);
+        if (round == null) {
+            throw new IllegalStateException("No open vote round");
+        }
+        close(gameId, round);
+    }
+
+    @Scheduled(fixedDelayString = "${app.voting.round-ttl-ms:3600000}")
+    public void dropStaleRounds() {
+        long now = System.currentTimeMillis();
+        rounds.values().removeIf(round -> now - round.openedAt > roundTtlMillis);
+    }
+
+    private VoteRound openRound(UUID gameId) {
+        VoteRound round = rounds.get(gameId);
+        if (round != null) {
+            return round;
+        }
+        Game game = gameService.getGame(gameId);
+        if (game.getGameState() != Game.GameState.RUNNING) {
+            throw new IllegalStateException("Game is not running");
+        }
+        Set<UUID> voters = new HashSet<>(game.getPlayers());
+        voters.removeAll(game.getEliminatedUserIds());
+        VoteRound opened = new VoteRound(game.getVoteRound(), voters);
+        round = rounds.putIfAbsent(gameId, opened);
+        return round != null ? round : opened;
+    }
+
+    private void close(UUID gameId, VoteRound round) {
+        round.lock.writeLock().lock();
+        try {
+            if (round.closed) {
+                return;
+            }
+            round.closed = true;
+        } finally {
+            round.lock.writeLock().unlock();
+        }
+        // The round stays registered (and rejects votes) until its outcome is applied, so that the
+        // next round is opened with the advanced round number
+        try {
+            Map<UUID, Long> tally = tally(round.ballots.values());
+            UUID eliminated = leader(tally);
+            Game game = gameService.resolveVoteRound(gameId, round.number, eliminated,
+                resolved -> gameEventPublisher.roundResolved(resolved, round.number, eliminated, tally));
+            if (game.getGameState() == Game.GameState.FINISHED) {
+                turnTimerService.disable(gameId);
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.warn("Could not resolve vote round {} of game {}: {}", round.number, gameId, e.getMessage());
+        } finally {
+            rounds.remove(gameId, round);
+        }
+    }
+
+    /**
+     * Counts the votes each target received.
+     */
+    static Map<UUID, Long> tally(Collection<UUID> targets) {
+        Map<UUID, Long> tally = new HashMap<>();
+        for (UUID target : targets) {
+            tally.merge(target, 1L, Long::sum);
+        }
+        return tally;
+    }
+
+    /**
+     * Returns the player with strictly the most votes, or {@code null} on a tie or an empty tally.
+     */
+    static UUID leader(Map<UUID, Long> tally) {
+        UUID leader = null;
+        long most = 0;
+        boolean tied = false;
+        for (Map.Entry<UUID, Long> entry : tally.entrySet()) {
+            if (entry.getValue() > most) {
+                leader = entry.getKey();
+                most = entry.getValue();
+                tied = false;
+            } else if (entry.getValue() == most) {
+                tied = true;
+            }
+        }
+        return tied ? null : leader;
+    }
+
+    private static class VoteRound {
+        private final int number;
+        private final Set<UUID> voters;
+        private final Map<UUID, UUID> ballots = new ConcurrentHashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private boolean closed;
+        private final long openedAt = System.currentTimeMillis();
+
+        VoteRound(int number, Set<UUID> voters) {
+            this.number = number;
+            this.voters = voters;
+        }
+    }
+}
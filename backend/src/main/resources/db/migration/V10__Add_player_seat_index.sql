@@ -0,0 +1,13 @@
+-- Players keep their seat (join order) so membership can be stored as an indexed list and
+-- extended with a single insert per joining player
+ALTER TABLE game_players ADD COLUMN seat_index INTEGER;
+
+UPDATE game_players p
+SET seat_index = s.seat
+FROM (
+    SELECT game_id, user_id, row_number() OVER (PARTITION BY game_id ORDER BY ctid) - 1 AS seat
+    FROM game_players
+) s
+WHERE p.game_id = s.game_id AND p.user_id = s.user_id;
+
+ALTER TABLE game_players ALTER COLUMN seat_index SET NOT NULL;
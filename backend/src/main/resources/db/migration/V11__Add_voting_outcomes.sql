@@ -0,0 +1,15 @@
+-- Voting outcomes: the round counter, eliminated players and the winning side.
+-- Individual votes are tallied in memory and never stored.
+ALTER TABLE games ADD COLUMN vote_round INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE games ADD COLUMN winner VARCHAR(20);
+ALTER TABLE games ADD CONSTRAINT check_winner CHECK (winner IN ('CIVILIANS', 'SPIES'));
+
+CREATE TABLE game_eliminations (
+    game_id UUID NOT NULL REFERENCES games(id) ON DELETE CASCADE,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    PRIMARY KEY (game_id, user_id)
+);
+
+ALTER TABLE games_archive ADD COLUMN vote_round INTEGER;
+ALTER TABLE games_archive ADD COLUMN winner VARCHAR(20);
+ALTER TABLE games_archive ADD COLUMN eliminated_ids UUID[] NOT NULL DEFAULT '{}';
@@ -0,0 +1,14 @@
+-- Two writers that both read the same last seat may have given it out twice; renumber such
+-- games in seat (then insertion) order before seats are made unique
+UPDATE game_players p
+SET seat_index = s.seat
+FROM (
+    SELECT game_id, user_id, row_number() OVER (PARTITION BY game_id ORDER BY seat_index, ctid) - 1 AS seat
+    FROM game_players
+    WHERE game_id IN (
+        SELECT game_id FROM game_players GROUP BY game_id, seat_index HAVING count(*) > 1
+    )
+) s
+WHERE p.game_id = s.game_id AND p.user_id = s.user_id AND p.seat_index <> s.seat;
+
+ALTER TABLE game_players ADD CONSTRAINT uk_game_players_seat UNIQUE (game_id, seat_index);
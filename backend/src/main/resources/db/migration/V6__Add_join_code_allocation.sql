@@ -0,0 +1,7 @@
+-- Join codes are handed out in blocks from this sequence and permuted over the 26^6 code space
+CREATE SEQUENCE join_code_block_seq START WITH 0 MINVALUE 0;
+
+-- Only unfinished games hold their join code; finished games free it for reuse
+ALTER TABLE games DROP CONSTRAINT IF EXISTS games_join_code_key;
+DROP INDEX IF EXISTS idx_games_join_code;
+CREATE UNIQUE INDEX idx_games_live_join_code ON games(join_code) WHERE game_state <> 'FINISHED';
@@ -0,0 +1,2 @@
+-- Optimistic locking for write-back of live game state
+ALTER TABLE games ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
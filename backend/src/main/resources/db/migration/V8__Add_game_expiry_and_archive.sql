@@ -0,0 +1,29 @@
+-- Activity timestamps drive idle-game expiry and archival
+ALTER TABLE games ADD COLUMN last_activity_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE games ADD COLUMN finished_at TIMESTAMP;
+UPDATE games SET finished_at = CURRENT_TIMESTAMP WHERE game_state = 'FINISHED';
+
+CREATE INDEX idx_games_live_last_activity ON games(last_activity_at) WHERE game_state <> 'FINISHED';
+CREATE INDEX idx_games_finished_at ON games(finished_at) WHERE game_state = 'FINISHED';
+
+-- Finished games are moved out of the hot tables into monthly partitions, which can be
+-- detached or dropped without touching live data. Monthly partitions are created by the reaper;
+-- the default partition only catches rows outside them.
+CREATE TABLE games_archive (
+    id UUID NOT NULL,
+    join_code VARCHAR(6) NOT NULL,
+    host_user_id UUID NOT NULL,
+    number_of_spies INTEGER,
+    current_turn_index INTEGER,
+    civilian_word VARCHAR(255),
+    spy_word VARCHAR(255),
+    generated_name VARCHAR(255),
+    generated_summary VARCHAR(1000),
+    player_ids UUID[] NOT NULL,
+    spy_ids UUID[] NOT NULL,
+    finished_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, finished_at)
+) PARTITION BY RANGE (finished_at);
+
+CREATE TABLE games_archive_default PARTITION OF games_archive DEFAULT;
@@ -0,0 +1,2 @@
+-- Keyset pagination and streaming over users in (created_at, id) order
+CREATE INDEX idx_users_created_at_id ON users(created_at, id);
@@ -0,0 +1,43 @@
+package com.whoisthespy;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+/**
+ * Base of tests running the whole application against an embedded PostgreSQL migrated by
+ * Flyway. Subclasses share one application context and database, so each test creates its own
+ * users and games. Handlers run with {@code app.query-budget.mode=strict}, and the scheduled
+ * write-back, reload, reaper and turn timer jobs are slowed down so that tests drive them explicitly.
+ */
+@SpringBootTest(properties = {
+    "app.query-budget.mode=strict",
+    "app.engine.flush-interval-ms=3600000",
+    "app.engine.reload-interval-ms=3600000",
+    "app.reaper.interval-ms=3600000",
+    "app.turn-timer.tick-ms=3600000"
+})
+@AutoConfigureMockMvc
+public abstract class EmbeddedPostgresTest {
+    // Stopped by its shutdown hook, after the application context
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
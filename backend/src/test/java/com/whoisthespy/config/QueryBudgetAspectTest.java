@@ -0,0 +1,73 @@
+package com.whoisthespy.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryBudgetAspectTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void strictModeFailsCallsOverBudget() {
+        Handler handler = proxy(QueryBudgetAspect.Mode.STRICT);
+
+        assertThatThrownBy(() -> handler.query(3))
+            .isInstanceOf(QueryBudgetAspect.QueryBudgetExceededException.class)
+            .hasMessageStartingWith("Handler.query prepared 3 statements, budget 2")
+            .hasMessageContaining("select 3");
+    }
+
+    @Test
+    void strictModePassesCallsWithinBudget() {
+        Handler handler = proxy(QueryBudgetAspect.Mode.STRICT);
+
+        assertThat(handler.query(2)).isEqualTo(2);
+        assertThat(meterRegistry.get("db.statements").tag("endpoint", "Handler.query").summary().max())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void logModeCountsCallsOverBudget() {
+        Handler handler = proxy(QueryBudgetAspect.Mode.LOG);
+
+        assertThat(handler.query(3)).isEqualTo(3);
+        assertThat(meterRegistry.get("db.statements.over.budget").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void nestedHandlerStatementsCountTowardsTheOuterBudget() {
+        Handler handler = proxy(QueryBudgetAspect.Mode.STRICT);
+
+        assertThatThrownBy(() -> handler.queryAndDelegate(handler))
+            .isInstanceOf(QueryBudgetAspect.QueryBudgetExceededException.class)
+            .hasMessageStartingWith("Handler.queryAndDelegate prepared 3 statements, budget 2");
+    }
+
+    private Handler proxy(QueryBudgetAspect.Mode mode) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Handler());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new QueryBudgetAspect(mode, meterRegistry));
+        return factory.getProxy();
+    }
+
+    static class Handler {
+        private final StatementCounter statementCounter = new StatementCounter();
+
+        @QueryBudget(2)
+        public int query(int statements) {
+            for (int i = 1; i <= statements; i++) {
+                statementCounter.inspect("select " + i);
+            }
+            return statements;
+        }
+
+        @QueryBudget(2)
+        public int queryAndDelegate(Handler handler) {
+            statementCounter.inspect("select 0");
+            return handler.query(2);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.whoisthespy.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.whoisthespy.EmbeddedPostgresTest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Plays a game through the REST handlers with {@code app.query-budget.mode=strict}, so any
+ * handler preparing more statements than its {@code @QueryBudget} fails the test.
+ */
+class HotHandlerQueryBudgetTest extends EmbeddedPostgresTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void gameHandlersStayWithinTheirBudgets() throws Exception {
+        List<String> users = new ArrayList<>();
+        for (String username : List.of("host", "alice", "bob", "carol")) {
+            users.add(call(post("/users"), Map.of("username", username + "-" + UUID.randomUUID()), status().isCreated())
+                .get("id").asText());
+        }
+        String host = users.get(0);
+        call(get("/users/" + users.get(1)), null, status().isOk());
+        call(get("/users?limit=2"), null, status().isOk());
+
+        JsonNode created = call(post("/game/create"), Map.of("hostUserId", host), status().isCreated());
+        String gameId = created.get("id").asText();
+        for (String user : users.subList(1, users.size())) {
+            call(post("/game/join"), Map.of("joinCode", created.get("joinCode").asText(), "userId", user),
+                status().isOk());
+        }
+
+        call(post("/game/start"), Map.of("gameId", gameId, "hostUserId", host, "numberOfSpies", 1), status().isOk());
+        call(get("/game/" + gameId), null, status().isOk());
+        String revision = mockMvc.perform(get("/game/" + gameId + "/view").param("userId", users.get(1)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/game/" + gameId + "/view").param("userId", users.get(1))
+                .header(HttpHeaders.IF_NONE_MATCH, revision))
+            .andExpect(status().isNotModified());
+        JsonNode turn = call(post("/game/" + gameId + "/nextTurn"), Map.of("hostUserId", host), status().isOk());
+        assertThat(turn.get("currentTurnIndex").asInt()).isEqualTo(1);
+        call(post("/game/" + gameId + "/generateName"), Map.of("hostUserId", host), status().isOk());
+
+        // The statements were counted, so the budgets were actually checked
+        DistributionSummary joins = meterRegistry.get("db.statements")
+            .tag("endpoint", "GameController.joinGame").summary();
+        assertThat(joins.count()).isGreaterThanOrEqualTo(3);
+        // Joins are served from memory and the user cache; the start writes the game back
+        DistributionSummary starts = meterRegistry.get("db.statements")
+            .tag("endpoint", "GameController.startGame").summary();
+        assertThat(starts.totalAmount()).isPositive();
+    }
+
+    private JsonNode call(MockHttpServletRequestBuilder request, Object body, ResultMatcher expectedStatus)
+            throws Exception {
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(body));
+        }
+        byte[] response = mockMvc.perform(request)
+            .andExpect(expectedStatus)
+            .andReturn().getResponse().getContentAsByteArray();
+        return response.length == 0 ? null : objectMapper.readTree(response);
+    }
+}
@@ -0,0 +1,81 @@
+package com.whoisthespy.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.whoisthespy.EmbeddedPostgresTest;
+import com.whoisthespy.entity.Game;
+import com.whoisthespy.service.GameService;
+import com.whoisthespy.service.GameStateEngine;
+import com.whoisthespy.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PlayerViewTest extends EmbeddedPostgresTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameStateEngine gameStateEngine;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void runningGameViewDoesNotRevealRoles() throws Exception {
+        Game game = startedGame();
+
+        for (UUID player : game.getPlayers()) {
+            JsonNode view = view(game.getId(), player);
+            assertThat(view.get("gameState").asText()).isEqualTo("RUNNING");
+            assertThat(view.get("role").isNull()).isTrue();
+            assertThat(view.get("word").isNull()).isTrue();
+        }
+    }
+
+    @Test
+    void finishedGameViewRevealsTheRole() throws Exception {
+        Game game = startedGame();
+        UUID spy = game.getSpyUserIds().iterator().next();
+        gameStateEngine.expireIfIdle(game.getId(), LocalDateTime.now().plusMinutes(1), finished -> { });
+
+        assertThat(view(game.getId(), spy).get("role").asText()).isEqualTo("SPY");
+        // Also when read back from the database
+        gameStateEngine.flushDirty();
+        JsonNode stored = view(game.getId(), spy);
+        assertThat(stored.get("role").asText()).isEqualTo("SPY");
+        assertThat(stored.get("word").asText()).isEqualTo(game.getSpyWord());
+    }
+
+    private Game startedGame() {
+        UUID host = user();
+        Game game = gameService.createGame(host);
+        gameService.joinGame(game.getJoinCode(), user(), joined -> { });
+        gameService.joinGame(game.getJoinCode(), user(), joined -> { });
+        return gameService.startGame(game.getId(), host, 1, started -> { });
+    }
+
+    private JsonNode view(UUID gameId, UUID userId) throws Exception {
+        byte[] response = mockMvc.perform(get("/game/" + gameId + "/view").param("userId", userId.toString()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readTree(response);
+    }
+
+    private UUID user() {
+        return userService.createUser("player-" + UUID.randomUUID()).getId();
+    }
+}
@@ -0,0 +1,34 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.EmbeddedPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EngineInstanceLockTest extends EmbeddedPostgresTest {
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private EngineInstanceLock engineInstanceLock;
+
+    @Test
+    void secondInstanceCannotStart() {
+        assertThatThrownBy(() -> new EngineInstanceLock(dataSourceProperties, applicationContext))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void lockIsKeptWhileItsConnectionIsValid() {
+        engineInstanceLock.verify();
+
+        assertThatThrownBy(() -> new EngineInstanceLock(dataSourceProperties, applicationContext))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,158 @@
+package com.whoisthespy.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.whoisthespy.entity.Game;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class GameEventPublisherTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Long enough that only the other events flush the pending player deltas
+    private final GameEventPublisher publisher = new GameEventPublisher(messagingTemplate, objectMapper,
+        new GameEventLog(64, 3_600_000), meterRegistry, 60_000);
+    private final Game game = new Game();
+    private final UUID host = UUID.randomUUID();
+
+    GameEventPublisherTest() {
+        game.setId(UUID.randomUUID());
+        game.setPlayers(new ArrayList<>(List.of(host)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Test
+    void burstOfJoinsIsSentAsOneContiguousEvent() throws Exception {
+        UUID first = join(1);
+        UUID second = join(2);
+        UUID third = join(3);
+        verify(messagingTemplate, never()).send(anyString(), any(Message.class));
+
+        game.setEventSequence(4);
+        publisher.stateChanged(game);
+
+        List<JsonNode> events = sentEvents(2);
+        JsonNode players = events.get(0);
+        assertThat(players.get("type").asText()).isEqualTo("PLAYERS");
+        assertThat(players.get("firstSequence").asLong()).isEqualTo(1);
+        assertThat(players.get("sequence").asLong()).isEqualTo(3);
+        assertThat(players.get("added")).extracting(JsonNode::asText)
+            .containsExactly(first.toString(), second.toString(), third.toString());
+        assertThat(players.get("playerCount").asInt()).isEqualTo(4);
+        assertThat(events.get(1).get("type").asText()).isEqualTo("STATE");
+        assertThat(meterRegistry.counter("game.broadcast.coalesced").count()).isEqualTo(2);
+    }
+
+    @Test
+    void playerLeavingWithinTheWindowIsOnlyReportedAsRemoved() throws Exception {
+        UUID guest = join(1);
+        game.getPlayers().remove(guest);
+        game.setEventSequence(2);
+        publisher.playersChanged(game, List.of(), List.of(guest));
+
+        publisher.shutdown();
+
+        JsonNode players = sentEvents(1).get(0);
+        assertThat(players.get("added")).isEmpty();
+        assertThat(players.get("removed")).extracting(JsonNode::asText).containsExactly(guest.toString());
+        assertThat(players.get("firstSequence").asLong()).isEqualTo(1);
+        assertThat(players.get("playerCount").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void rangeWithOtherEventsInsideStartsAtItsEnd() throws Exception {
+        join(1);
+        // Sequence 2 belongs to another event of the game
+        join(3);
+
+        publisher.shutdown();
+
+        JsonNode players = sentEvents(1).get(0);
+        assertThat(players.get("firstSequence").asLong()).isEqualTo(3);
+        assertThat(players.get("sequence").asLong()).isEqualTo(3);
+        assertThat(players.get("added")).hasSize(2);
+    }
+
+    @Test
+    void scheduledFlushSendsOutsideTheMapAndIsNotOvertaken() throws Exception {
+        SimpMessagingTemplate slowBroker = mock(SimpMessagingTemplate.class);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> sent = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            String destination = invocation.getArgument(0);
+            if (destination.endsWith("/players") && sent.isEmpty()) {
+                sending.countDown();
+                release.await();
+            }
+            sent.add(destination.substring(destination.lastIndexOf('/') + 1));
+            return null;
+        }).when(slowBroker).send(anyString(), any(Message.class));
+        GameEventPublisher flushing = new GameEventPublisher(slowBroker, objectMapper,
+            new GameEventLog(64, 3_600_000), meterRegistry, 1);
+        try {
+            game.setEventSequence(1);
+            flushing.playersChanged(game, List.of(host), List.of());
+            assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // The first flush is still sending: a new delta is not held up by it
+            game.setEventSequence(2);
+            assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> flushing.playersChanged(game, List.of(UUID.randomUUID()), List.of()));
+            game.setEventSequence(3);
+            Thread state = Thread.ofPlatform().start(() -> flushing.stateChanged(game));
+            release.countDown();
+            state.join();
+        } finally {
+            flushing.shutdown();
+        }
+
+        assertThat(sent).containsExactly("players", "players", "state");
+    }
+
+    private UUID join(long sequence) {
+        UUID userId = UUID.randomUUID();
+        game.getPlayers().add(userId);
+        game.setEventSequence(sequence);
+        publisher.playersChanged(game, List.of(userId), List.of());
+        return userId;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<JsonNode> sentEvents(int count) throws Exception {
+        ArgumentCaptor<Message<byte[]>> messages = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(count)).send(anyString(), messages.capture());
+        List<JsonNode> events = new ArrayList<>();
+        for (Message<byte[]> message : messages.getAllValues()) {
+            events.add(objectMapper.readTree(message.getPayload()));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,88 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.GameName;
+import com.whoisthespy.repository.GameNameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameNamePoolTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final GameNameRepository gameNameRepository = mock(GameNameRepository.class);
+    private final GameNamePool pool = new GameNamePool(gameNameRepository, new SimpleMeterRegistry(), 3_600_000);
+
+    @Test
+    void sessionGetsEveryNameBeforeAnyRepeats() {
+        stub(List.of("Harbor", "Library", "Museum"), CREATED_AT);
+        pool.load();
+        UUID session = UUID.randomUUID();
+
+        Set<String> picked = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            picked.add(pool.pick(GameRules.LOCATION_CATEGORY, session));
+        }
+
+        assertThat(picked).containsExactlyInAnyOrder("Harbor", "Library", "Museum");
+        // Exhausted: the session starts over
+        assertThat(pool.pick(GameRules.LOCATION_CATEGORY, session)).isIn("Harbor", "Library", "Museum");
+    }
+
+    @Test
+    void endedSessionStartsOver() {
+        stub(List.of("Harbor"), CREATED_AT);
+        pool.load();
+        UUID session = UUID.randomUUID();
+        pool.pick(GameRules.LOCATION_CATEGORY, session);
+
+        pool.endSession(session);
+
+        assertThat(pool.pick(GameRules.LOCATION_CATEGORY, session)).isEqualTo("Harbor");
+    }
+
+    @Test
+    void unknownCategoryHasNoNames() {
+        stub(List.of("Harbor"), CREATED_AT);
+        pool.load();
+
+        assertThat(pool.pick("animal")).isNull();
+        assertThat(pool.pick("animal", UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    void poolIsReloadedOnlyWhenTheTableChanges() {
+        stub(List.of("Harbor"), CREATED_AT);
+        pool.load();
+
+        pool.refreshIfChanged();
+        verify(gameNameRepository, times(1)).findAll();
+
+        stub(List.of("Harbor", "Library"), CREATED_AT.plusDays(1));
+        pool.refreshIfChanged();
+
+        assertThat(pool.size()).isEqualTo(2);
+        verify(gameNameRepository, times(2)).findAll();
+    }
+
+    // Stubs game_names with the given location names
+    private void stub(List<String> names, LocalDateTime lastCreatedAt) {
+        GameNameRepository.Fingerprint fingerprint = mock(GameNameRepository.Fingerprint.class);
+        when(fingerprint.getTotal()).thenReturn((long) names.size());
+        when(fingerprint.getLastCreatedAt()).thenReturn(lastCreatedAt);
+        when(gameNameRepository.fingerprint()).thenReturn(fingerprint);
+        when(gameNameRepository.findAll()).thenReturn(names.stream()
+            .map(name -> new GameName(UUID.randomUUID(), name, GameRules.LOCATION_CATEGORY, lastCreatedAt))
+            .toList());
+    }
+}
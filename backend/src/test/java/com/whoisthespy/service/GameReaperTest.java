@@ -0,0 +1,109 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.EmbeddedPostgresTest;
+import com.whoisthespy.entity.Game;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameReaperTest extends EmbeddedPostgresTest {
+    @Autowired
+    private GameReaper gameReaper;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameStateEngine gameStateEngine;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void finishedGameIsMovedIntoItsMonthlyPartition() {
+        UUID host = user();
+        UUID guest = user();
+        UUID gameId = finishedGame(host, guest, LocalDateTime.of(2024, 3, 15, 12, 0));
+
+        gameReaper.archiveFinishedGames();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM games WHERE id = ?", Integer.class, gameId))
+            .isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM game_players WHERE game_id = ?",
+            Integer.class, gameId)).isZero();
+        assertThat(archivedPlayers("games_archive_y2024m03", gameId)).containsExactly(host, guest);
+    }
+
+    @Test
+    void rowsInTheDefaultPartitionAreMovedIntoANewPartition() {
+        UUID earlierGameId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO games_archive (id, join_code, host_user_id, player_ids, spy_ids, finished_at) "
+            + "VALUES (?, 'AAAAAA', ?, ARRAY[]::uuid[], ARRAY[]::uuid[], ?)",
+            earlierGameId, UUID.randomUUID(), Timestamp.valueOf(LocalDateTime.of(2023, 1, 10, 12, 0)));
+        UUID gameId = finishedGame(user(), user(), LocalDateTime.of(2023, 1, 20, 12, 0));
+
+        gameReaper.archiveFinishedGames();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM games_archive_y2023m01", UUID.class))
+            .contains(earlierGameId, gameId);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM games_archive_default WHERE id IN (?, ?)",
+            Integer.class, earlierGameId, gameId)).isZero();
+    }
+
+    @Test
+    void lockedGameIsSkippedUntilReleased() throws SQLException {
+        UUID gameId = finishedGame(user(), user(), LocalDateTime.of(2024, 6, 15, 12, 0));
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement lock = connection.prepareStatement("SELECT id FROM games WHERE id = ? FOR UPDATE")) {
+                lock.setObject(1, gameId);
+                lock.executeQuery().close();
+            }
+            gameReaper.archiveFinishedGames();
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM games WHERE id = ?", Integer.class, gameId))
+                .isOne();
+            connection.rollback();
+        }
+        gameReaper.archiveFinishedGames();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM games WHERE id = ?", Integer.class, gameId))
+            .isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM games_archive_y2024m06 WHERE id = ?",
+            Integer.class, gameId)).isOne();
+    }
+
+    private UUID finishedGame(UUID host, UUID guest, LocalDateTime finishedAt) {
+        Game game = gameService.createGame(host);
+        gameService.joinGame(game.getJoinCode(), guest, joined -> { });
+        gameStateEngine.expireIfIdle(game.getId(), LocalDateTime.now().plusMinutes(1), expired -> { });
+        jdbcTemplate.update("UPDATE games SET finished_at = ? WHERE id = ?", Timestamp.valueOf(finishedAt), game.getId());
+        return game.getId();
+    }
+
+    private List<UUID> archivedPlayers(String partition, UUID gameId) {
+        return jdbcTemplate.queryForList("SELECT unnest(player_ids) FROM " + partition + " WHERE id = ?",
+            UUID.class, gameId);
+    }
+
+    private UUID user() {
+        return userService.createUser("player-" + UUID.randomUUID()).getId();
+    }
+}
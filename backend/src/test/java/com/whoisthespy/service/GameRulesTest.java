@@ -0,0 +1,54 @@
+package com.whoisthespy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameRulesTest {
+
+    @Test
+    void joinCodesAreUppercaseLetters() {
+        for (long index : new long[] {0, 1, 12_345, GameRules.JOIN_CODE_SPACE - 1}) {
+            assertThat(GameRules.joinCode(index)).matches("[A-Z]{" + GameRules.JOIN_CODE_LENGTH + "}");
+        }
+    }
+
+    @Test
+    void joinCodeIsABijectionOnTheCodeSpace() {
+        // The code index is affine in the index, so a step coprime with the space reaches every code once
+        long first = codeIndex(GameRules.joinCode(0));
+        long step = Math.floorMod(codeIndex(GameRules.joinCode(1)) - first, GameRules.JOIN_CODE_SPACE);
+        assertThat(BigInteger.valueOf(step).gcd(BigInteger.valueOf(GameRules.JOIN_CODE_SPACE)))
+            .isEqualTo(BigInteger.ONE);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long index = random.nextLong(GameRules.JOIN_CODE_SPACE);
+            assertThat(codeIndex(GameRules.joinCode(index)))
+                .isEqualTo((first + step * index) % GameRules.JOIN_CODE_SPACE);
+        }
+    }
+
+    @Test
+    void consecutiveIndexesGetDistinctCodes() {
+        Set<String> codes = new HashSet<>();
+        for (long index = 0; index < 100_000; index++) {
+            codes.add(GameRules.joinCode(index));
+        }
+        assertThat(codes).hasSize(100_000);
+        assertThat(GameRules.joinCode(1)).isNotEqualTo(GameRules.joinCode(GameRules.JOIN_CODE_SPACE - 1));
+    }
+
+    private static long codeIndex(String code) {
+        long codeIndex = 0;
+        for (char letter : code.toCharArray()) {
+            codeIndex = codeIndex * 26 + (letter - 'A');
+        }
+        return codeIndex;
+    }
+}
@@ -0,0 +1,107 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.Game;
+import com.whoisthespy.repository.GameRepository;
+import com.whoisthespy.service.NameGenerationService.GeneratedName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameServiceTest {
+    private final UUID spy = UUID.randomUUID();
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+    private final UUID third = UUID.randomUUID();
+
+    private final NameGenerationService nameGenerationService = mock(NameGenerationService.class);
+    private final GameStateEngine gameStateEngine = mock(GameStateEngine.class);
+    private final GameService gameService = new GameService(mock(GameRepository.class), mock(UserService.class),
+        nameGenerationService, gameStateEngine, mock(JoinCodeAllocator.class));
+
+    @Test
+    void civiliansWinOnceEverySpyIsEliminated() {
+        assertThat(GameService.winner(game(Set.of(spy)))).isEqualTo(Game.Winner.CIVILIANS);
+    }
+
+    @Test
+    void spiesWinWhenTheyAreNoLongerOutnumbered() {
+        assertThat(GameService.winner(game(Set.of(first, second)))).isEqualTo(Game.Winner.SPIES);
+    }
+
+    @Test
+    void gameGoesOnWhileCiviliansOutnumberSpies() {
+        assertThat(GameService.winner(game(Set.of()))).isNull();
+        assertThat(GameService.winner(game(Set.of(first)))).isNull();
+    }
+
+    @Test
+    void rejectedStartDoesNotPickAName() {
+        Game waiting = waitingGame();
+        runsMutation(waiting, 1);
+
+        assertThatThrownBy(() -> gameService.startGame(waiting.getId(), first, 1, started -> { }))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> gameService.startGame(waiting.getId(), spy, 4, started -> { }))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        verify(nameGenerationService, never()).generateName(any(UUID.class));
+    }
+
+    @Test
+    void startRunAgainAfterAReloadKeepsItsName() {
+        Game waiting = waitingGame();
+        when(nameGenerationService.generateName(waiting.getId()))
+            .thenReturn(new GeneratedName("Harbor", "summary"), new GeneratedName("Library", "summary"));
+        runsMutation(waiting, 2);
+
+        Game started = gameService.startGame(waiting.getId(), spy, 1, game -> { });
+
+        assertThat(started.getGeneratedName()).isEqualTo("Harbor");
+        verify(nameGenerationService, times(1)).generateName(waiting.getId());
+    }
+
+    private Game waitingGame() {
+        Game game = new Game();
+        game.setId(UUID.randomUUID());
+        game.setHostUserId(spy);
+        game.setPlayers(new ArrayList<>(List.of(spy, first, second, third)));
+        game.setGameState(Game.GameState.WAITING);
+        return game;
+    }
+
+    // Applies mutations to copies of the game, as many times as the engine would on reloads
+    @SuppressWarnings("unchecked")
+    private void runsMutation(Game game, int times) {
+        when(gameStateEngine.mutate(any(), any(), any())).thenAnswer(invocation -> {
+            Consumer<Game> mutation = invocation.getArgument(1);
+            Game updated = null;
+            for (int i = 0; i < times; i++) {
+                updated = GameStateEngine.copyOf(game);
+                mutation.accept(updated);
+            }
+            return updated;
+        });
+    }
+
+    private Game game(Set<UUID> eliminated) {
+        Game game = new Game();
+        game.setPlayers(new ArrayList<>(List.of(spy, first, second, third)));
+        game.setSpyUserIds(new HashSet<>(Set.of(spy)));
+        game.setEliminatedUserIds(new HashSet<>(eliminated));
+        return game;
+    }
+}
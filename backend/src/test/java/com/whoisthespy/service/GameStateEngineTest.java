@@ -0,0 +1,220 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.EmbeddedPostgresTest;
+import com.whoisthespy.entity.Game;
+import com.whoisthespy.repository.GameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameStateEngineTest extends EmbeddedPostgresTest {
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameStateEngine gameStateEngine;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameNamePool gameNamePool;
+
+    @Autowired
+    private JoinCodeAllocator joinCodeAllocator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void joinsAreWrittenBackByTheFlush() {
+        UUID host = user();
+        Game game = gameService.createGame(host);
+        long version = storedVersion(game.getId());
+        UUID guest = user();
+        gameService.joinGame(game.getJoinCode(), guest, joined -> { });
+
+        assertThat(storedPlayers(game.getId())).containsExactly(host);
+        gameStateEngine.flushDirty();
+
+        assertThat(storedPlayers(game.getId())).containsExactly(host, guest);
+        assertThat(storedVersion(game.getId())).isEqualTo(version + 1);
+        // Nothing is left to write
+        gameStateEngine.flushDirty();
+        assertThat(storedVersion(game.getId())).isEqualTo(version + 1);
+    }
+
+    @Test
+    void finishedGameIsEvictedByTheFlush() {
+        Game game = gameService.createGame(user());
+        gameStateEngine.expireIfIdle(game.getId(), LocalDateTime.now().plusMinutes(1), expired -> { });
+
+        assertThat(storedState(game.getId())).isEqualTo("FINISHED");
+        gameStateEngine.flushDirty();
+
+        assertThat(gameStateEngine.findLiveSnapshot(game.getId())).isEmpty();
+        assertThat(gameStateEngine.findGameIdByJoinCode(game.getJoinCode())).isEmpty();
+    }
+
+    @Test
+    void idleGameIsWrittenBackAndEvicted() throws InterruptedException {
+        GameStateEngine engine = new GameStateEngine(gameRepository, gameNamePool, joinCodeAllocator,
+            transactionManager, new SimpleMeterRegistry(), 0);
+        UUID host = user();
+        Game game = gameService.createGame(host);
+        UUID guest = user();
+        engine.mutate(game.getId(), live -> live.getPlayers().add(guest), joined -> { });
+        // Past the (zero) idle eviction delay
+        Thread.sleep(5);
+
+        engine.flushDirty();
+
+        assertThat(engine.findLiveSnapshot(game.getId())).isEmpty();
+        assertThat(storedPlayers(game.getId())).containsExactly(host, guest);
+    }
+
+    @Test
+    void gameWrittenOutsideTheEngineIsReloaded() {
+        UUID host = user();
+        Game game = gameService.createGame(host);
+        UUID guest = user();
+        gameService.joinGame(game.getJoinCode(), guest, joined -> { });
+        long sequence = gameService.getGame(game.getId()).getEventSequence();
+        UUID reactiveGuest = user();
+        joinOutsideEngine(game.getId(), reactiveGuest);
+
+        List<Game> published = new ArrayList<>();
+        gameStateEngine.reloadChanged(published::add);
+
+        assertThat(published).hasSize(1);
+        assertThat(published.get(0).getPlayers()).containsExactly(host, reactiveGuest, guest);
+        // Skips a sequence so that clients re-fetch the game
+        assertThat(published.get(0).getEventSequence()).isEqualTo(sequence + 2);
+        gameStateEngine.flushDirty();
+        assertThat(storedPlayers(game.getId())).containsExactly(host, reactiveGuest, guest);
+
+        published.clear();
+        gameStateEngine.reloadChanged(published::add);
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void unwrittenJoinIsAppliedAgainAfterAConcurrentJoin() {
+        UUID host = user();
+        Game game = gameService.createGame(host);
+        UUID guest = user();
+        gameService.joinGame(game.getJoinCode(), guest, joined -> { });
+
+        UUID reactiveGuest = user();
+        joinOutsideEngine(game.getId(), reactiveGuest);
+        gameStateEngine.flushDirty();
+
+        assertThat(storedPlayers(game.getId())).containsExactly(host, reactiveGuest, guest);
+        Game live = gameService.getGame(game.getId());
+        assertThat(live.getPlayers()).containsExactly(host, reactiveGuest, guest);
+        assertThat(live.getVersion()).isEqualTo(storedVersion(game.getId()));
+    }
+
+    @Test
+    void stateTransitionIsRetriedAfterAConcurrentWrite() {
+        UUID host = user();
+        Game game = gameService.createGame(host);
+        gameService.joinGame(game.getJoinCode(), user(), joined -> { });
+        gameStateEngine.flushDirty();
+        UUID reactiveGuest = user();
+        joinOutsideEngine(game.getId(), reactiveGuest);
+
+        List<Game> published = new ArrayList<>();
+        Game started = gameService.startGame(game.getId(), host, 1, published::add);
+
+        assertThat(started.getGameState()).isEqualTo(Game.GameState.RUNNING);
+        assertThat(started.getPlayers()).hasSize(3).contains(reactiveGuest);
+        assertThat(published).containsExactly(started);
+        assertThat(storedState(game.getId())).isEqualTo("RUNNING");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM game_spies WHERE game_id = ?",
+            Integer.class, game.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void changeRejectedByTheStoredGameIsDropped() {
+        UUID host = user();
+        Game game = gameService.createGame(host);
+        gameService.joinGame(game.getJoinCode(), user(), joined -> { });
+        gameService.startGame(game.getId(), host, 1, started -> { });
+        gameService.nextTurn(game.getId(), host, turned -> { });
+
+        jdbcTemplate.update("UPDATE games SET game_state = 'FINISHED', finished_at = now(), version = version + 1 "
+            + "WHERE id = ?", game.getId());
+        gameStateEngine.flushDirty();
+
+        assertThat(storedState(game.getId())).isEqualTo("FINISHED");
+        assertThat(jdbcTemplate.queryForObject("SELECT current_turn_index FROM games WHERE id = ?",
+            Integer.class, game.getId())).isZero();
+        assertThat(gameStateEngine.findLiveSnapshot(game.getId())).isEmpty();
+    }
+
+    @Test
+    void failedStateTransitionLeavesTheGameAsItWas() {
+        UUID host = user();
+        Game game = gameService.createGame(host);
+        UUID guest = user();
+        gameService.joinGame(game.getJoinCode(), guest, joined -> { });
+        long version = storedVersion(game.getId());
+        // The unwritten player can no longer be inserted
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", guest);
+
+        List<Game> published = new ArrayList<>();
+        assertThatThrownBy(() -> gameService.startGame(game.getId(), host, 1, published::add))
+            .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(published).isEmpty();
+        Game live = gameService.getGame(game.getId());
+        assertThat(live.getGameState()).isEqualTo(Game.GameState.WAITING);
+        assertThat(live.getSpyUserIds()).isEmpty();
+        // The state update was rolled back with the failed insert
+        assertThat(storedState(game.getId())).isEqualTo("WAITING");
+        assertThat(storedVersion(game.getId())).isEqualTo(version);
+    }
+
+    private UUID user() {
+        return userService.createUser("player-" + UUID.randomUUID()).getId();
+    }
+
+    // What a join through the reactive API writes
+    private void joinOutsideEngine(UUID gameId, UUID userId) {
+        jdbcTemplate.update("UPDATE games SET version = version + 1, last_activity_at = now() WHERE id = ?", gameId);
+        jdbcTemplate.update("INSERT INTO game_players (game_id, user_id, seat_index) "
+            + "SELECT ?, ?, COALESCE(MAX(seat_index) + 1, 0) FROM game_players WHERE game_id = ?",
+            gameId, userId, gameId);
+    }
+
+    private List<UUID> storedPlayers(UUID gameId) {
+        return jdbcTemplate.queryForList("SELECT user_id FROM game_players WHERE game_id = ? ORDER BY seat_index",
+            UUID.class, gameId);
+    }
+
+    private long storedVersion(UUID gameId) {
+        return jdbcTemplate.queryForObject("SELECT version FROM games WHERE id = ?", Long.class, gameId);
+    }
+
+    private String storedState(UUID gameId) {
+        return jdbcTemplate.queryForObject("SELECT game_state FROM games WHERE id = ?", String.class, gameId);
+    }
+}
@@ -0,0 +1,56 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.repository.GameRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JoinCodeAllocatorTest {
+    private final GameRepository gameRepository = mock(GameRepository.class);
+    private final JoinCodeAllocator allocator = new JoinCodeAllocator(gameRepository, 2);
+
+    @Test
+    void codesAreServedFromReservedBlocks() {
+        when(gameRepository.nextJoinCodeBlock()).thenReturn(0L, 7L);
+
+        assertThat(allocator.allocate()).isEqualTo(GameRules.joinCode(0));
+        assertThat(allocator.allocate()).isEqualTo(GameRules.joinCode(1));
+        verify(gameRepository, times(1)).nextJoinCodeBlock();
+
+        // The first block is used up; another instance may have taken the blocks in between
+        assertThat(allocator.allocate()).isEqualTo(GameRules.joinCode(14));
+        assertThat(allocator.allocate()).isEqualTo(GameRules.joinCode(15));
+        verify(gameRepository, times(2)).nextJoinCodeBlock();
+    }
+
+    @Test
+    void releasedCodesAreReusedBeforeFreshOnes() {
+        when(gameRepository.nextJoinCodeBlock()).thenReturn(0L);
+        String first = allocator.allocate();
+
+        allocator.release("ABCDEF");
+        allocator.release(first);
+
+        assertThat(allocator.allocate()).isEqualTo("ABCDEF");
+        assertThat(allocator.allocate()).isEqualTo(first);
+        assertThat(allocator.allocate()).isEqualTo(GameRules.joinCode(1));
+        verify(gameRepository, times(1)).nextJoinCodeBlock();
+    }
+
+    @Test
+    void releasedCodesBeyondTheLimitAreDiscarded() {
+        when(gameRepository.nextJoinCodeBlock()).thenReturn(0L);
+        for (int i = 0; i < 10_001; i++) {
+            allocator.release(GameRules.joinCode(1_000_000 + i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(allocator.allocate()).isEqualTo(GameRules.joinCode(1_000_000 + i));
+        }
+        assertThat(allocator.allocate()).isEqualTo(GameRules.joinCode(0));
+    }
+}
@@ -0,0 +1,120 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.Game;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TurnTimerServiceTest {
+    private static final long TURN_NANOS = TimeUnit.SECONDS.toNanos(TurnTimerService.MIN_TURN_SECONDS);
+
+    private final GameService gameService = mock(GameService.class);
+    private final GameEventPublisher gameEventPublisher = mock(GameEventPublisher.class);
+    // Ticks are driven by the tests only
+    private final TurnTimerService turnTimerService = new TurnTimerService(gameService, gameEventPublisher,
+        new SimpleMeterRegistry(), 3_600_000);
+    private final UUID gameId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        turnTimerService.shutdown();
+    }
+
+    @Test
+    void expiredTurnIsAdvanced() {
+        long start = enable(0);
+        when(gameService.advanceTurn(eq(gameId), eq(0), any())).thenReturn(game(Game.GameState.RUNNING, 1));
+
+        turnTimerService.tickTimers(start + TURN_NANOS / 2);
+        verify(gameService, never()).advanceTurn(any(), anyInt(), any());
+
+        turnTimerService.tickTimers(start + TURN_NANOS + 1);
+        verify(gameService).advanceTurn(eq(gameId), eq(0), any());
+        verify(gameEventPublisher).turnTick(gameId, 1, TurnTimerService.MIN_TURN_SECONDS);
+    }
+
+    @Test
+    void staleTurnRestartsTheTimerAtTheCurrentTurn() {
+        long start = enable(0);
+        // The host advanced twice without the timer being told
+        when(gameService.advanceTurn(eq(gameId), eq(0), any()))
+            .thenThrow(new IllegalStateException("Turn has already advanced"));
+        when(gameService.getGame(gameId)).thenReturn(game(Game.GameState.RUNNING, 2));
+
+        long expired = start + TURN_NANOS + 1;
+        turnTimerService.tickTimers(expired);
+        turnTimerService.tickTimers(expired + TURN_NANOS / 2);
+
+        verify(gameEventPublisher).turnTick(eq(gameId), eq(2), anyLong());
+        verify(gameService, never()).advanceTurn(eq(gameId), eq(2), any());
+    }
+
+    @Test
+    void finishedGameIsDropped() {
+        long start = enable(0);
+        when(gameService.advanceTurn(eq(gameId), eq(0), any()))
+            .thenThrow(new IllegalStateException("Game is not running"));
+        when(gameService.getGame(gameId)).thenReturn(game(Game.GameState.FINISHED, 0));
+
+        turnTimerService.tickTimers(start + TURN_NANOS + 1);
+        clearInvocations(gameService, gameEventPublisher);
+        turnTimerService.tickTimers(start + 3 * TURN_NANOS);
+
+        verifyNoInteractions(gameService, gameEventPublisher);
+    }
+
+    @Test
+    void missingGameIsDropped() {
+        long start = enable(0);
+        when(gameService.advanceTurn(eq(gameId), eq(0), any()))
+            .thenThrow(new IllegalArgumentException("Game not found: " + gameId));
+
+        turnTimerService.tickTimers(start + TURN_NANOS + 1);
+        clearInvocations(gameService, gameEventPublisher);
+        turnTimerService.tickTimers(start + 3 * TURN_NANOS);
+
+        verifyNoInteractions(gameService, gameEventPublisher);
+    }
+
+    @Test
+    void archivedGameIsDropped() {
+        long start = enable(0);
+        when(gameService.advanceTurn(eq(gameId), eq(0), any()))
+            .thenThrow(new IllegalStateException("Game is not running"));
+        when(gameService.getGame(gameId)).thenThrow(new IllegalArgumentException("Game not found: " + gameId));
+
+        turnTimerService.tickTimers(start + TURN_NANOS + 1);
+        clearInvocations(gameService, gameEventPublisher);
+        turnTimerService.tickTimers(start + 3 * TURN_NANOS);
+
+        verifyNoInteractions(gameService, gameEventPublisher);
+    }
+
+    // Enables the timer at the given turn and returns a time no earlier than its start
+    private long enable(int turnIndex) {
+        turnTimerService.enable(game(Game.GameState.RUNNING, turnIndex), TurnTimerService.MIN_TURN_SECONDS);
+        return System.nanoTime();
+    }
+
+    private Game game(Game.GameState state, int turnIndex) {
+        Game game = new Game();
+        game.setId(gameId);
+        game.setGameState(state);
+        game.setCurrentTurnIndex(turnIndex);
+        return game;
+    }
+}
@@ -0,0 +1,45 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.EmbeddedPostgresTest;
+import com.whoisthespy.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTest extends EmbeddedPostgresTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void createdUserIsCached() {
+        User user = userService.createUser("player-" + UUID.randomUUID());
+
+        assertThat(cache().get(user.getId(), User.class)).isEqualTo(user);
+    }
+
+    @Test
+    void batchCreatedUsersAreCached() {
+        String existing = userService.createUser("player-" + UUID.randomUUID()).getUsername();
+
+        List<UserService.CreationResult> results = userService.createUsers(
+            List.of("player-" + UUID.randomUUID(), existing, "player-" + UUID.randomUUID()));
+
+        assertThat(results).filteredOn(result -> result.getStatus() == UserService.CreationStatus.CREATED)
+            .hasSize(2)
+            .allSatisfy(result -> assertThat(cache().get(result.getUser().getId(), User.class))
+                .isEqualTo(result.getUser()));
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(UserService.USERS_CACHE);
+    }
+}
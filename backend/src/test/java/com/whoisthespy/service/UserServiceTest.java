@@ -0,0 +1,39 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class UserServiceTest {
+
+    @Test
+    void cursorRoundTripsThePagePosition() {
+        User last = new User(UUID.randomUUID(), "alice", LocalDateTime.of(2024, 5, 17, 9, 30, 15, 123_456_000));
+
+        String cursor = UserService.encodeCursor(last);
+        User after = UserService.decodeCursor(cursor);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(after.getId()).isEqualTo(last.getId());
+        assertThat(after.getCreatedAt()).isEqualTo(last.getCreatedAt());
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String missingId = Base64.getUrlEncoder().encodeToString("2024-05-17T09:30".getBytes(StandardCharsets.UTF_8));
+        String badTime = Base64.getUrlEncoder().encodeToString(("yesterday|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[] {"not base64!", missingId, badTime}) {
+            assertThatIllegalArgumentException()
+                .isThrownBy(() -> UserService.decodeCursor(cursor))
+                .withMessageStartingWith("Invalid cursor");
+        }
+    }
+}
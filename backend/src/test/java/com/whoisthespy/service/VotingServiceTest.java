@@ -0,0 +1,107 @@
+package com.whoisthespy.service;
+
+import com.whoisthespy.entity.Game;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VotingServiceTest {
+    private final UUID gameId = UUID.randomUUID();
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+    private final UUID third = UUID.randomUUID();
+
+    private final GameService gameService = mock(GameService.class);
+    private final GameEventPublisher gameEventPublisher = mock(GameEventPublisher.class);
+    private final TurnTimerService turnTimerService = mock(TurnTimerService.class);
+    private VotingService votingService;
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        game = new Game();
+        game.setId(gameId);
+        game.setHostUserId(first);
+        game.setPlayers(new ArrayList<>(List.of(first, second, third)));
+        game.setGameState(Game.GameState.RUNNING);
+        when(gameService.getGame(gameId)).thenReturn(game);
+        when(gameService.resolveVoteRound(eq(gameId), anyInt(), any(), any())).thenReturn(game);
+        votingService = new VotingService(gameService, gameEventPublisher, turnTimerService,
+            new SimpleMeterRegistry(), 3_600_000);
+    }
+
+    @Test
+    void tallyCountsVotesPerTarget() {
+        assertThat(VotingService.tally(List.of(first, second, first)))
+            .containsExactlyInAnyOrderEntriesOf(Map.of(first, 2L, second, 1L));
+        assertThat(VotingService.tally(List.of())).isEmpty();
+    }
+
+    @Test
+    void leaderNeedsStrictlyTheMostVotes() {
+        assertThat(VotingService.leader(Map.of(first, 2L, second, 1L))).isEqualTo(first);
+        assertThat(VotingService.leader(Map.of(first, 1L, second, 2L, third, 1L))).isEqualTo(second);
+        assertThat(VotingService.leader(Map.of(first, 1L, second, 1L))).isNull();
+        assertThat(VotingService.leader(Map.of())).isNull();
+    }
+
+    @Test
+    void roundClosesWhenEveryPlayerHasVoted() {
+        votingService.castVote(gameId, first, third);
+        votingService.castVote(gameId, second, first);
+        verify(gameService, never()).resolveVoteRound(any(), anyInt(), any(), any());
+
+        // A changed vote does not count twice
+        votingService.castVote(gameId, second, third);
+        verify(gameService, never()).resolveVoteRound(any(), anyInt(), any(), any());
+
+        votingService.castVote(gameId, third, first);
+        verify(gameService).resolveVoteRound(eq(gameId), eq(0), eq(third), any());
+    }
+
+    @Test
+    void tiedRoundEliminatesNobody() {
+        votingService.castVote(gameId, first, second);
+        votingService.castVote(gameId, second, third);
+        votingService.castVote(gameId, third, first);
+
+        verify(gameService).resolveVoteRound(eq(gameId), eq(0), eq(null), any());
+    }
+
+    @Test
+    void eliminatedPlayersNeitherVoteNorAreVotedFor() {
+        game.getEliminatedUserIds().add(third);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> votingService.castVote(gameId, third, first));
+        assertThatIllegalArgumentException().isThrownBy(() -> votingService.castVote(gameId, first, third));
+        assertThatIllegalArgumentException().isThrownBy(() -> votingService.castVote(gameId, first, first));
+    }
+
+    @Test
+    void finishedGameDisablesTheTurnTimer() {
+        Game finished = new Game();
+        finished.setGameState(Game.GameState.FINISHED);
+        when(gameService.resolveVoteRound(eq(gameId), anyInt(), any(), any())).thenReturn(finished);
+
+        votingService.castVote(gameId, first, third);
+        votingService.castVote(gameId, second, third);
+        votingService.castVote(gameId, third, first);
+
+        verify(turnTimerService).disable(gameId);
+    }
+}
@@ -0,0 +1,65 @@
+package com.whoisthespy.benchmarks;
+
+import com.whoisthespy.entity.Game;
+import com.whoisthespy.service.GameEventPublisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a game delta and converting it to a broker message. The message channel
+ * discards messages, so broker dispatch and session I/O are excluded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+    @Param({"4", "12"})
+    public int players;
+
+    private GameEventPublisher publisher;
+    private Game game;
+    private List<UUID> joined;
+
+    @Setup
+    public void setUp() {
+        ServiceFixture fixture = new ServiceFixture();
+        Game created = fixture.gameService.createGame(fixture.repositories.addUser().getId());
+        for (int i = 1; i < players; i++) {
+            fixture.gameService.joinGame(created.getJoinCode(), fixture.repositories.addUser().getId(), joined -> { });
+        }
+        game = fixture.gameService.startGame(created.getId(), created.getHostUserId(), 1, started -> { });
+        joined = List.of(game.getPlayers().get(players - 1));
+        publisher = fixture.gameEventPublisher;
+    }
+
+    @Benchmark
+    public void playersChanged() {
+        publisher.playersChanged(game, joined, List.of());
+    }
+
+    @Benchmark
+    public void stateChanged() {
+        publisher.stateChanged(game);
+    }
+
+    @Benchmark
+    public void turnChanged() {
+        publisher.turnChanged(game);
+    }
+}
@@ -0,0 +1,63 @@
+package com.whoisthespy.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.whoisthespy.controller.GameController.GameResponse;
+import com.whoisthespy.entity.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the REST game payload and serializing it with Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameResponseBenchmark {
+    @Param({"4", "12"})
+    public int players;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Game game;
+    private GameResponse response;
+
+    @Setup
+    public void setUp() {
+        ServiceFixture fixture = new ServiceFixture();
+        Game created = fixture.gameService.createGame(fixture.repositories.addUser().getId());
+        for (int i = 1; i < players; i++) {
+            fixture.gameService.joinGame(created.getJoinCode(), fixture.repositories.addUser().getId(), joined -> { });
+        }
+        game = fixture.gameService.startGame(created.getId(), created.getHostUserId(), 1, started -> { });
+        response = new GameResponse(game);
+    }
+
+    @Benchmark
+    public GameResponse buildResponse() {
+        return new GameResponse(game);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new GameResponse(game));
+    }
+}
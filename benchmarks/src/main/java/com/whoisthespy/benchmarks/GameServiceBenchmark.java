@@ -0,0 +1,97 @@
+package com.whoisthespy.benchmarks;
+
+import com.whoisthespy.entity.Game;
+import com.whoisthespy.entity.User;
+import com.whoisthespy.service.NameGenerationService.GeneratedName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU and allocation cost of the GameService hot paths with in-memory repositories.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameServiceBenchmark {
+    private ServiceFixture fixture;
+    private UUID gameId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new ServiceFixture();
+        gameId = fixture.gameService.createGame(fixture.repositories.addUser().getId()).getId();
+    }
+
+    @Benchmark
+    public Game startGame(Lobby lobby) {
+        return lobby.fixture.gameService.startGame(lobby.gameId, lobby.hostUserId, 1, started -> { });
+    }
+
+    @Benchmark
+    public String allocateJoinCode() {
+        return fixture.joinCodeAllocator.allocate();
+    }
+
+    @Benchmark
+    public GeneratedName generateName() {
+        return fixture.nameGenerationService.generateName(gameId);
+    }
+
+    /**
+     * Provides a fresh WAITING lobby to every {@link #startGame} invocation; JMH excludes the
+     * setup from the timing.
+     */
+    @State(Scope.Thread)
+    public static class Lobby {
+        private static final int RESET_EVERY = 1024;
+
+        @Param({"4", "12"})
+        public int players;
+
+        private ServiceFixture fixture;
+        private List<User> users;
+        private UUID gameId;
+        private UUID hostUserId;
+        private int invocations;
+
+        @Setup(Level.Trial)
+        public void setUpTrial() {
+            fixture = new ServiceFixture();
+            users = new ArrayList<>();
+            for (int i = 0; i < players; i++) {
+                users.add(fixture.repositories.addUser());
+            }
+            hostUserId = users.get(0).getId();
+        }
+
+        @Setup(Level.Invocation)
+        public void setUpLobby() {
+            if (++invocations % RESET_EVERY == 0) {
+                fixture.reset();
+            }
+            Game game = fixture.gameService.createGame(hostUserId);
+            for (User user : users.subList(1, users.size())) {
+                fixture.gameService.joinGame(game.getJoinCode(), user.getId(), joined -> { });
+            }
+            gameId = game.getId();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.whoisthespy.benchmarks;
+
+import com.whoisthespy.entity.Game;
+import com.whoisthespy.entity.GameName;
+import com.whoisthespy.entity.User;
+import com.whoisthespy.repository.GameNameRepository;
+import com.whoisthespy.repository.GameRepository;
+import com.whoisthespy.repository.UserRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Map-backed stand-ins for the Spring Data repositories, so benchmarks measure CPU and allocation
+ * cost without a database. Only the methods used by the services are implemented.
+ */
+public class InMemoryRepositories {
+    private final Map<UUID, Game> games = new ConcurrentHashMap<>();
+    private final Map<UUID, User> users = new ConcurrentHashMap<>();
+    private final List<GameName> gameNames = new ArrayList<>();
+    private final AtomicLong joinCodeBlocks = new AtomicLong();
+
+    public InMemoryRepositories(int locationNames) {
+        for (int i = 0; i < locationNames; i++) {
+            GameName gameName = new GameName();
+            gameName.setId(UUID.randomUUID());
+            gameName.setName("Location " + i);
+            gameName.setCategory("location");
+            gameName.setCreatedAt(LocalDateTime.now());
+            gameNames.add(gameName);
+        }
+    }
+
+    public User addUser() {
+        User user = new User(UUID.randomUUID(), "user-" + users.size(), LocalDateTime.now());
+        users.put(user.getId(), user);
+        return user;
+    }
+
+    public void clearGames() {
+        games.clear();
+    }
+
+    public GameRepository gameRepository() {
+        return proxy(GameRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> {
+                Game game = (Game) args[0];
+                if (game.getId() == null) {
+                    game.setId(UUID.randomUUID());
+                }
+                if (game.getVersion() == null) {
+                    game.setVersion(0L);
+                }
+                games.put(game.getId(), game);
+                yield game;
+            }
+            case "findById" -> Optional.ofNullable(games.get((UUID) args[0]));
+            case "findLiveGameIdByJoinCode" -> games.values().stream()
+                .filter(game -> game.getJoinCode().equals(args[0]))
+                .filter(game -> game.getGameState() != Game.GameState.FINISHED)
+                .map(Game::getId)
+                .findFirst();
+            case "nextJoinCodeBlock" -> joinCodeBlocks.getAndIncrement();
+            case "findVersionById" -> Optional.ofNullable(games.get((UUID) args[0])).map(Game::getVersion);
+            case "updateState", "insertPlayer", "insertSpy", "insertElimination" -> 1;
+            default -> unsupported(method.getName());
+        });
+    }
+
+    public UserRepository userRepository() {
+        return proxy(UserRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findById" -> Optional.ofNullable(users.get((UUID) args[0]));
+            case "existsById" -> users.containsKey((UUID) args[0]);
+            default -> unsupported(method.getName());
+        });
+    }
+
+    public GameNameRepository gameNameRepository() {
+        GameNameRepository.Fingerprint fingerprint = new GameNameRepository.Fingerprint() {
+            @Override
+            public long getTotal() {
+                return gameNames.size();
+            }
+
+            @Override
+            public LocalDateTime getLastCreatedAt() {
+                return null;
+            }
+        };
+        return proxy(GameNameRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findAll" -> gameNames;
+            case "fingerprint" -> fingerprint;
+            default -> unsupported(method.getName());
+        });
+    }
+
+    private static Object unsupported(String method) {
+        throw new UnsupportedOperationException("Not stubbed: " + method);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        InvocationHandler withObjectMethods = (proxy, method, args) -> switch (method.getName()) {
+            case "toString" -> "InMemory" + type.getSimpleName();
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> handler.invoke(proxy, method, args);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, withObjectMethods);
+    }
+}
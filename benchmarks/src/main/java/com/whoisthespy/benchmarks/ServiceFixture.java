@@ -0,0 +1,82 @@
+package com.whoisthespy.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.whoisthespy.repository.GameNameRepository;
+import com.whoisthespy.repository.GameRepository;
+import com.whoisthespy.repository.UserRepository;
+import com.whoisthespy.service.GameEventLog;
+import com.whoisthespy.service.GameEventPublisher;
+import com.whoisthespy.service.GameNamePool;
+import com.whoisthespy.service.GameService;
+import com.whoisthespy.service.GameStateEngine;
+import com.whoisthespy.service.JoinCodeAllocator;
+import com.whoisthespy.service.NameGenerationService;
+import com.whoisthespy.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Wires the game services by hand on top of {@link InMemoryRepositories}, without a Spring context.
+ */
+public class ServiceFixture {
+    public final InMemoryRepositories repositories = new InMemoryRepositories(100);
+    public final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    public final GameRepository gameRepository = repositories.gameRepository();
+    public final UserRepository userRepository = repositories.userRepository();
+    public final GameNameRepository gameNameRepository = repositories.gameNameRepository();
+
+    // Without a Spring context the user cache is bypassed, so lookups hit the in-memory map
+    public final UserService userService = new UserService(userRepository, null, null);
+    public final GameNamePool gameNamePool = new GameNamePool(gameNameRepository, meterRegistry, 3_600_000);
+    public final NameGenerationService nameGenerationService = new NameGenerationService(gameNamePool);
+    public final JoinCodeAllocator joinCodeAllocator = new JoinCodeAllocator(gameRepository, 256);
+    public final GameStateEngine gameStateEngine = new GameStateEngine(
+        gameRepository, gameNamePool, joinCodeAllocator, noOpTransactionManager(), meterRegistry, 0);
+    public final GameService gameService = new GameService(
+        gameRepository, userService, nameGenerationService, gameStateEngine, joinCodeAllocator);
+    public final GameEventPublisher gameEventPublisher = new GameEventPublisher(
+        discardingMessagingTemplate(), new ObjectMapper(), new GameEventLog(64, 3_600_000), meterRegistry, 0);
+
+    public ServiceFixture() {
+        gameNamePool.load();
+    }
+
+    /**
+     * Writes back and evicts every live game, then drops the stored rows, so long runs keep a
+     * bounded heap.
+     */
+    public void reset() {
+        gameStateEngine.flushDirty();
+        repositories.clearGames();
+    }
+
+    private static PlatformTransactionManager noOpTransactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+
+    private static SimpMessagingTemplate discardingMessagingTemplate() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> true);
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+        return template;
+    }
+}
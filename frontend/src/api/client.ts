@@ -21,12 +21,41 @@ export interface Game {
   hostUserId: string
   players: string[]
   numberOfSpies?: number
+  // Only revealed once the game is finished; players get their own role on /user/queue/role
   spyUserIds?: string[]
+  eliminatedUserIds?: string[]
   currentTurnIndex: number
-  civilianWord?: string
-  spyWord?: string
   currentImageUrl?: string
+  generatedName?: string
+  generatedSummary?: string
   gameState: 'WAITING' | 'RUNNING' | 'FINISHED'
+  voteRound?: number
+  winner?: 'CIVILIANS' | 'SPIES'
+  sequence: number
+}
+
+export interface PlayerRole {
+  gameId: string
+  role: 'CIVILIAN' | 'SPY'
+  word: string
+}
+
+export interface PlayerGameView {
+  id: string
+  joinCode: string
+  hostUserId: string
+  players: string[]
+  eliminatedUserIds: string[]
+  numberOfSpies?: number
+  currentTurnIndex: number
+  generatedName?: string
+  gameState: 'WAITING' | 'RUNNING' | 'FINISHED'
+  voteRound: number
+  winner?: 'CIVILIANS' | 'SPIES'
+  // Only set once the game is finished; running players get their role over STOMP
+  role?: 'CIVILIAN' | 'SPY'
+  word?: string
+  revision: string
 }
 
 export const userApi = {
@@ -61,11 +90,12 @@ export const gameApi = {
     return response.data
   },
   
-  start: async (gameId: string, hostUserId: string, numberOfSpies: number): Promise<Game> => {
+  start: async (gameId: string, hostUserId: string, numberOfSpies: number, turnSeconds?: number): Promise<Game> => {
     const response = await apiClient.post<Game>('/game/start', {
       gameId,
       hostUserId,
       numberOfSpies,
+      turnSeconds,
     })
     return response.data
   },
@@ -75,11 +105,22 @@ export const gameApi = {
     return response.data
   },
   
+  // Served with an ETag; the browser revalidates it and reuses the cached body on 304
+  view: async (gameId: string, userId: string): Promise<PlayerGameView> => {
+    const response = await apiClient.get<PlayerGameView>(`/game/${gameId}/view`, { params: { userId } })
+    return response.data
+  },
+  
   nextTurn: async (gameId: string, hostUserId: string): Promise<Game> => {
     const response = await apiClient.post<Game>(`/game/${gameId}/nextTurn`, { hostUserId })
     return response.data
   },
   
+  // turnSeconds of 0 disables the timer
+  setTurnTimer: async (gameId: string, hostUserId: string, turnSeconds: number): Promise<void> => {
+    await apiClient.post(`/game/${gameId}/turnTimer`, { hostUserId, turnSeconds })
+  },
+  
   generateImage: async (gameId: string, hostUserId: string, word?: string, role?: string): Promise<{ imageUrl: string }> => {
     const response = await apiClient.post<{ imageUrl: string }>(`/game/${gameId}/generateImage`, {
       hostUserId,
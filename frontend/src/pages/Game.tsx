@@ -1,7 +1,8 @@
 import { useEffect, useState } from 'react'
 import { useParams, useNavigate, useLocation } from 'react-router-dom'
-import { gameApi, type Game } from '../api/client'
+import { gameApi, type Game, type PlayerRole } from '../api/client'
 import { wsService } from '../services/websocket'
+import { GameEventStream, applyGameEvent, type TransientEvent, type TurnTick, type VoteProgress } from '../services/gameEvents'
 import '../App.css'
 
 function Game() {
@@ -16,6 +17,10 @@ function Game() {
   const [error, setError] = useState('')
   const [loading, setLoading] = useState(true)
   const [generatingImage, setGeneratingImage] = useState(false)
+  const [tick, setTick] = useState<TurnTick | null>(null)
+  const [voteProgress, setVoteProgress] = useState<VoteProgress | null>(null)
+  const [votedFor, setVotedFor] = useState<string | null>(null)
+  const [playerRole, setPlayerRole] = useState<PlayerRole | null>(null)
 
   useEffect(() => {
     if (!gameId || !userId) {
@@ -23,9 +28,17 @@ function Game() {
       return
     }
 
+    const events = new GameEventStream(
+      gameId,
+      (event) => setGame((current) => (current ? applyGameEvent(current, event) : current)),
+      () => loadGame(),
+      (event: TransientEvent) => (event.type === 'TICK' ? setTick(event) : setVoteProgress(event))
+    )
+
     const loadGame = async () => {
       try {
         const gameData = await gameApi.get(gameId)
+        events.reset(gameData.sequence)
         setGame(gameData)
         if (gameData.currentImageUrl) {
           setImageUrl(gameData.currentImageUrl)
@@ -40,7 +53,7 @@ function Game() {
     loadGame()
 
     // Connect WebSocket
-    wsService.connect().then(() => {
+    wsService.connect(userId).then(() => {
       // Subscribe to image updates
       wsService.subscribe(`/topic/game/${gameId}/image`, (data) => {
         if (data.imageUrl) {
@@ -48,35 +61,54 @@ function Game() {
         }
       })
 
-      // Subscribe to turn updates
-      wsService.subscribe(`/topic/game/${gameId}/turn`, () => {
-        loadGame()
-      })
+      // Roles are private: pushed when the game starts, and answered on subscribe when rejoining
+      const onRole = (role: PlayerRole) => role.gameId === gameId && setPlayerRole(role)
+      wsService.subscribe('/user/queue/role', onRole)
+      wsService.subscribe(`/app/game/${gameId}/role`, onRole)
 
-      // Subscribe to player updates
-      wsService.subscribe(`/topic/game/${gameId}/players`, () => {
-        loadGame()
-      })
+      // Apply game deltas; the stream reloads the game only when it detects a gap
+      events.start()
     }).catch((err) => {
+      // The REST view does not reveal roles of running games, so there is no fallback
       console.error('WebSocket connection failed:', err)
     })
 
     return () => {
+      events.stop()
       wsService.disconnect()
     }
   }, [gameId, userId, navigate])
 
+  // A new vote round starts without a ballot
+  useEffect(() => {
+    setVotedFor(null)
+  }, [game?.voteRound])
+
   const handleNextTurn = async () => {
     if (!gameId || !userId) return
 
     try {
-      const updatedGame = await gameApi.nextTurn(gameId, userId)
+      // Use the open WebSocket when available; other players get the TURN delta either way
+      const updatedGame = wsService.isConnected()
+        ? await wsService.command<Game>(`/app/game/${gameId}/nextTurn`, {})
+        : await gameApi.nextTurn(gameId, userId)
       setGame(updatedGame)
     } catch (err: any) {
-      setError(err.response?.data?.message || 'Failed to advance turn')
+      setError(err.response?.data?.message || err.message || 'Failed to advance turn')
     }
   }
 
+  const handleVote = (targetId: string) => {
+    if (!gameId || !userId) return
+    wsService.send(`/app/game/${gameId}/vote`, { voterId: userId, targetId })
+    setVotedFor(targetId)
+  }
+
+  const handleCloseVote = () => {
+    if (!gameId || !userId) return
+    wsService.send(`/app/game/${gameId}/vote/close`, { hostUserId: userId })
+  }
+
   const handleGenerateImage = async () => {
     if (!gameId || !userId) return
 
@@ -113,10 +145,10 @@ function Game() {
     )
   }
 
-  const isSpy = game.spyUserIds?.includes(userId || '')
-  const role = isSpy ? 'spy' : 'civilian'
-  const word = isSpy ? game.spyWord : game.civilianWord
+  const role = playerRole?.role.toLowerCase()
+  const word = playerRole?.word
   const currentPlayerIndex = game.currentTurnIndex % (game.players.length || 1)
+  const eliminated = game.eliminatedUserIds ?? []
 
   return (
     <div className="container">
@@ -124,8 +156,8 @@ function Game() {
         <h1>🎭 Who Is The Spy</h1>
 
         <div className="game-info">
-          <div className={`role-badge ${role}`}>
-            You are: {role.toUpperCase()}
+          <div className={`role-badge ${role ?? ''}`}>
+            You are: {playerRole?.role ?? 'Waiting for role...'}
           </div>
           <div className="word-display">
             Your word: {word || 'Loading...'}
@@ -134,6 +166,7 @@ function Game() {
 
         <div className="turn-indicator">
           Turn {game.currentTurnIndex + 1} - Player {currentPlayerIndex + 1}'s turn
+          {tick && tick.currentTurnIndex === game.currentTurnIndex && ` (${tick.remainingSeconds}s left)`}
         </div>
 
         <div className="image-container">
@@ -151,6 +184,32 @@ function Game() {
           )}
         </div>
 
+        {game.gameState === 'RUNNING' && !eliminated.includes(userId || '') && (
+          <div className="voting">
+            <h3>Vote (round {(game.voteRound ?? 0) + 1})</h3>
+            {voteProgress && voteProgress.voteRound === (game.voteRound ?? 0) && (
+              <p>{voteProgress.votesCast} / {voteProgress.eligibleVoters} votes cast</p>
+            )}
+            {game.players
+              .filter((id) => id !== userId && !eliminated.includes(id))
+              .map((id) => (
+                <button
+                  key={id}
+                  className={`btn ${votedFor === id ? 'btn-primary' : 'btn-secondary'}`}
+                  onClick={() => handleVote(id)}
+                >
+                  Player {game.players.indexOf(id) + 1}
+                </button>
+              ))}
+          </div>
+        )}
+
+        {game.winner && (
+          <div className="success">
+            <p>{game.winner === 'SPIES' ? 'The spies win!' : 'The civilians win!'}</p>
+          </div>
+        )}
+
         {isHost && (
           <div className="host-controls">
             <h3>Host Controls</h3>
@@ -168,6 +227,13 @@ function Game() {
             >
               Next Turn
             </button>
+            <button
+              className="btn btn-secondary"
+              onClick={handleCloseVote}
+              disabled={game.gameState !== 'RUNNING'}
+            >
+              Close Vote
+            </button>
           </div>
         )}
 
@@ -178,6 +244,7 @@ function Game() {
           <p>Players: {game.players.length}</p>
           <p>Spies: {game.numberOfSpies || 'Not set'}</p>
           <p>State: {game.gameState}</p>
+          <p>Eliminated: {eliminated.length}</p>
         </div>
       </div>
     </div>
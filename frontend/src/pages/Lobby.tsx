@@ -2,6 +2,7 @@ import { useEffect, useState } from 'react'
 import { useParams, useNavigate, useLocation } from 'react-router-dom'
 import { gameApi, Game } from '../api/client'
 import { wsService } from '../services/websocket'
+import { GameEventStream, applyGameEvent } from '../services/gameEvents'
 import '../App.css'
 
 function Lobby() {
@@ -13,6 +14,7 @@ function Lobby() {
 
   const [game, setGame] = useState<Game | null>(null)
   const [numberOfSpies, setNumberOfSpies] = useState(1)
+  const [turnSeconds, setTurnSeconds] = useState(0)
   const [error, setError] = useState('')
   const [loading, setLoading] = useState(true)
 
@@ -22,9 +24,16 @@ function Lobby() {
       return
     }
 
+    const events = new GameEventStream(
+      gameId,
+      (event) => setGame((current) => (current ? applyGameEvent(current, event) : current)),
+      () => loadGame()
+    )
+
     const loadGame = async () => {
       try {
         const gameData = await gameApi.get(gameId)
+        events.reset(gameData.sequence)
         setGame(gameData)
         setLoading(false)
       } catch (err) {
@@ -36,16 +45,15 @@ function Lobby() {
     loadGame()
 
     // Connect WebSocket
-    wsService.connect().then(() => {
-      // Subscribe to player updates
-      wsService.subscribe(`/topic/game/${gameId}/players`, () => {
-        loadGame()
-      })
+    wsService.connect(userId).then(() => {
+      // Apply player and state deltas; the stream reloads the game only when it detects a gap
+      events.start()
     }).catch((err) => {
       console.error('WebSocket connection failed:', err)
     })
 
     return () => {
+      events.stop()
       wsService.disconnect()
     }
   }, [gameId, userId, navigate])
@@ -54,11 +62,16 @@ function Lobby() {
     if (!gameId || !userId) return
 
     try {
-      const updatedGame = await gameApi.start(gameId, userId, numberOfSpies)
+      const updatedGame = wsService.isConnected()
+        ? await wsService.command<Game>(`/app/game/${gameId}/start`, {
+            numberOfSpies,
+            turnSeconds: turnSeconds || undefined,
+          })
+        : await gameApi.start(gameId, userId, numberOfSpies, turnSeconds || undefined)
       setGame(updatedGame)
       navigate(`/game/${gameId}`, { state: { userId, isHost } })
     } catch (err: any) {
-      setError(err.response?.data?.message || 'Failed to start game')
+      setError(err.response?.data?.message || err.message || 'Failed to start game')
     }
   }
 
@@ -118,6 +131,17 @@ function Lobby() {
                 onChange={(e) => setNumberOfSpies(parseInt(e.target.value) || 1)}
               />
             </div>
+            <div className="form-group">
+              <label htmlFor="turnSeconds">Turn Timer (seconds, 0 = off)</label>
+              <input
+                id="turnSeconds"
+                type="number"
+                min="0"
+                max="600"
+                value={turnSeconds}
+                onChange={(e) => setTurnSeconds(parseInt(e.target.value) || 0)}
+              />
+            </div>
             <button className="btn btn-success" onClick={handleStartGame}>
               Start Game
             </button>
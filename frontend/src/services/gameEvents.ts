@@ -0,0 +1,178 @@
+import type { Game } from '../api/client'
+import { wsService } from './websocket'
+
+const GAME_TOPICS = ['players', 'state', 'turn', 'name', 'vote']
+
+export interface GameEvent {
+  type: 'PLAYERS' | 'STATE' | 'TURN' | 'NAME' | 'ROUND'
+  gameId: string
+  sequence: number
+  // Set on coalesced PLAYERS events, which cover every sequence from firstSequence to sequence
+  firstSequence?: number
+  added?: string[]
+  removed?: string[]
+  gameState?: Game['gameState']
+  numberOfSpies?: number
+  currentTurnIndex?: number
+  generatedName?: string
+  generatedSummary?: string
+  name?: string
+  summary?: string
+  round?: number
+  eliminatedUserId?: string | null
+  tally?: Record<string, number>
+  voteRound?: number
+  winner?: Game['winner']
+}
+
+/** Unsequenced countdown of the current turn, sent while a turn timer is enabled. */
+export interface TurnTick {
+  type: 'TICK'
+  gameId: string
+  currentTurnIndex: number
+  remainingSeconds: number
+}
+
+/** Unsequenced progress of the open vote round. */
+export interface VoteProgress {
+  type: 'VOTES'
+  gameId: string
+  voteRound: number
+  votesCast: number
+  eligibleVoters: number
+}
+
+export type TransientEvent = TurnTick | VoteProgress
+
+/** Events sent since a given sequence; incomplete when they are no longer all buffered. */
+interface Replay {
+  gameId: string
+  complete: boolean
+  events: GameEvent[]
+}
+
+export function applyGameEvent(game: Game, event: GameEvent): Game {
+  switch (event.type) {
+    case 'PLAYERS': {
+      const removed = event.removed ?? []
+      const players = game.players.filter((id) => !removed.includes(id))
+      for (const id of event.added ?? []) {
+        if (!players.includes(id)) {
+          players.push(id)
+        }
+      }
+      return { ...game, players, sequence: event.sequence }
+    }
+    case 'TURN':
+      return { ...game, currentTurnIndex: event.currentTurnIndex ?? game.currentTurnIndex, sequence: event.sequence }
+    case 'STATE':
+      return {
+        ...game,
+        gameState: event.gameState ?? game.gameState,
+        numberOfSpies: event.numberOfSpies,
+        currentTurnIndex: event.currentTurnIndex ?? game.currentTurnIndex,
+        generatedName: event.generatedName,
+        generatedSummary: event.generatedSummary,
+        sequence: event.sequence,
+      }
+    case 'ROUND': {
+      const eliminated = game.eliminatedUserIds ?? []
+      return {
+        ...game,
+        eliminatedUserIds: event.eliminatedUserId ? [...eliminated, event.eliminatedUserId] : eliminated,
+        voteRound: event.voteRound,
+        gameState: event.gameState ?? game.gameState,
+        winner: event.winner ?? undefined,
+        sequence: event.sequence,
+      }
+    }
+    case 'NAME':
+      return { ...game, generatedName: event.name, generatedSummary: event.summary, sequence: event.sequence }
+    default:
+      return game
+  }
+}
+
+/**
+ * Applies sequenced game deltas in order. Events older than the last applied sequence are
+ * dropped; a gap triggers onResync, after which the caller must call reset() with the sequence
+ * of the freshly loaded game. After a reconnect the missed events are replayed from the server,
+ * and onResync is only triggered when they are no longer buffered there.
+ */
+export class GameEventStream {
+  private lastSequence = 0
+  private resyncing = false
+  private replaying = false
+  private held: GameEvent[] = []
+  private unsubscribers: (() => void)[] = []
+
+  constructor(
+    private gameId: string,
+    private onEvent: (event: GameEvent) => void,
+    private onResync: () => void,
+    private onTransient?: (event: TransientEvent) => void,
+  ) {}
+
+  reset(sequence: number) {
+    this.lastSequence = sequence
+    this.resyncing = false
+  }
+
+  start() {
+    this.unsubscribers = GAME_TOPICS.map((topic) =>
+      wsService.subscribe(`/topic/game/${this.gameId}/${topic}`, (data) => this.handle(data))
+    )
+    this.unsubscribers.push(wsService.onReconnect(() => this.resume()))
+  }
+
+  /** Replays the events missed since the last applied one; live events are held until it arrives. */
+  resume() {
+    if (this.resyncing || this.replaying) {
+      return
+    }
+    this.replaying = true
+    const unsubscribe = wsService.subscribe(
+      `/app/game/${this.gameId}/replay/${this.lastSequence}`,
+      (replay: Replay) => {
+        unsubscribe()
+        this.replaying = false
+        const held = this.held
+        this.held = []
+        if (!replay.complete) {
+          this.resyncing = true
+          this.onResync()
+          return
+        }
+        replay.events.concat(held).forEach((event) => this.handle(event))
+      }
+    )
+  }
+
+  stop() {
+    this.unsubscribers.forEach((unsubscribe) => unsubscribe())
+    this.unsubscribers = []
+    this.replaying = false
+    this.held = []
+  }
+
+  private handle(event: GameEvent | TransientEvent) {
+    if (event.type === 'TICK' || event.type === 'VOTES') {
+      this.onTransient?.(event)
+      return
+    }
+    if (this.replaying) {
+      this.held.push(event)
+      return
+    }
+    if (this.resyncing || typeof event.sequence !== 'number' || event.sequence <= this.lastSequence) {
+      return
+    }
+    if ((event.firstSequence ?? event.sequence) > this.lastSequence + 1) {
+      this.resyncing = true
+      this.onResync()
+      return
+    }
+    this.lastSequence = event.sequence
+    this.onEvent(event)
+  }
+}
@@ -1,22 +1,44 @@
-import { Client } from '@stomp/stompjs'
+import { Client, type StompSubscription } from '@stomp/stompjs'
 import SockJS from 'sockjs-client'
 
 const WS_URL = import.meta.env.VITE_WS_URL || 'http://localhost:8080/ws'
+const COMMAND_TIMEOUT_MS = 10000
+
+interface Subscription {
+  topic: string
+  callback: (data: any) => void
+  stomp: StompSubscription
+}
 
 export class WebSocketService {
   private client: Client | null = null
-  private subscribers: Map<string, ((data: any) => void)[]> = new Map()
+  private subscriptions: Set<Subscription> = new Set()
+  private reconnectListeners: (() => void)[] = []
+  // Commands waiting for a reply; a lost connection fails them, since replies are not redelivered
+  private connectionLostListeners: Set<() => void> = new Set()
+  private connectedOnce = false
 
-  connect(): Promise<void> {
+  // userId identifies the session, so game commands can be sent to /app and replies received on /user/queue
+  connect(userId?: string): Promise<void> {
     return new Promise((resolve, reject) => {
       this.client = new Client({
         webSocketFactory: () => new SockJS(WS_URL) as any,
+        connectHeaders: userId ? { userId } : {},
         reconnectDelay: 5000,
         heartbeatIncoming: 4000,
         heartbeatOutgoing: 4000,
         onConnect: () => {
           console.log('WebSocket connected')
-          resolve()
+          if (!this.connectedOnce) {
+            this.connectedOnce = true
+            resolve()
+            return
+          }
+          // Subscriptions do not survive a dropped connection
+          this.subscriptions.forEach((subscription) => {
+            subscription.stomp = this.stompSubscribe(subscription.topic, subscription.callback)
+          })
+          this.reconnectListeners.forEach((listener) => listener())
         },
         onStompError: (frame) => {
           console.error('STOMP error:', frame)
@@ -26,6 +48,9 @@ export class WebSocketService {
           console.error('WebSocket error:', event)
           reject(event)
         },
+        onWebSocketClose: () => {
+          this.connectionLostListeners.forEach((listener) => listener())
+        },
       })
 
       this.client.activate()
@@ -34,9 +59,12 @@ export class WebSocketService {
 
   disconnect() {
     if (this.client) {
+      this.connectionLostListeners.forEach((listener) => listener())
       this.client.deactivate()
       this.client = null
-      this.subscribers.clear()
+      this.subscriptions.clear()
+      this.reconnectListeners = []
+      this.connectedOnce = false
     }
   }
 
@@ -46,36 +74,87 @@ export class WebSocketService {
       return () => {}
     }
 
-    if (!this.subscribers.has(topic)) {
-      this.subscribers.set(topic, [])
-    }
-
-    this.subscribers.get(topic)!.push(callback)
+    const subscription: Subscription = { topic, callback, stomp: this.stompSubscribe(topic, callback) }
+    this.subscriptions.add(subscription)
 
-    const subscription = this.client.subscribe(topic, (message) => {
-      try {
-        const data = JSON.parse(message.body)
-        callback(data)
-      } catch (error) {
-        console.error('Error parsing WebSocket message:', error)
+    return () => {
+      if (this.client?.connected) {
+        subscription.stomp.unsubscribe()
       }
-    })
+      this.subscriptions.delete(subscription)
+    }
+  }
 
+  /** Calls listener after each automatic reconnect, once subscriptions have been restored. */
+  onReconnect(listener: () => void) {
+    this.reconnectListeners.push(listener)
     return () => {
-      subscription.unsubscribe()
-      const callbacks = this.subscribers.get(topic)
-      if (callbacks) {
-        const index = callbacks.indexOf(callback)
-        if (index > -1) {
-          callbacks.splice(index, 1)
+      this.reconnectListeners = this.reconnectListeners.filter((l) => l !== listener)
+    }
+  }
+
+  send(destination: string, body: unknown) {
+    if (!this.client || !this.client.connected) {
+      console.error('WebSocket not connected')
+      return
+    }
+    this.client.publish({ destination, body: JSON.stringify(body) })
+  }
+
+  /**
+   * Sends a game command and resolves with the reply on /user/queue/{replyQueue}, or rejects with
+   * the error reported for that destination on /user/queue/errors. Also rejects when not
+   * connected, when the connection is lost before the reply, or after timeoutMs without one.
+   */
+  command<T>(destination: string, body: unknown, replyQueue = 'game', timeoutMs = COMMAND_TIMEOUT_MS): Promise<T> {
+    return new Promise((resolve, reject) => {
+      if (!this.client || !this.client.connected) {
+        reject(new Error('WebSocket not connected'))
+        return
+      }
+      const unsubscribeReply = this.subscribe(`/user/queue/${replyQueue}`, (reply) => {
+        cleanup()
+        resolve(reply)
+      })
+      const unsubscribeError = this.subscribe('/user/queue/errors', (error) => {
+        if (error.destination === destination) {
+          cleanup()
+          reject(new Error(error.message))
         }
+      })
+      const onConnectionLost = () => {
+        cleanup()
+        reject(new Error('WebSocket connection lost before a reply to ' + destination))
       }
-    }
+      const timeout = setTimeout(() => {
+        cleanup()
+        reject(new Error('No reply to ' + destination + ' within ' + timeoutMs + ' ms'))
+      }, timeoutMs)
+      const cleanup = () => {
+        clearTimeout(timeout)
+        this.connectionLostListeners.delete(onConnectionLost)
+        unsubscribeReply()
+        unsubscribeError()
+      }
+      this.connectionLostListeners.add(onConnectionLost)
+      this.send(destination, body)
+    })
   }
 
   isConnected(): boolean {
     return this.client?.connected || false
   }
+
+  private stompSubscribe(topic: string, callback: (data: any) => void) {
+    return this.client!.subscribe(topic, (message) => {
+      try {
+        const data = JSON.parse(message.body)
+        callback(data)
+      } catch (error) {
+        console.error('Error parsing WebSocket message:', error)
+      }
+    })
+  }
 }
 
 export const wsService = new WebSocketService()
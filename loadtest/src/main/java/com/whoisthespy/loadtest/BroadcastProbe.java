@@ -0,0 +1,73 @@
+package com.whoisthespy.loadtest;
+
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connects players over SockJS/STOMP and measures how long a turn change takes from the host's
+ * nextTurn request to delivery at each subscriber.
+ */
+public class BroadcastProbe {
+    static final String TURN_DELIVERY = "broadcast /topic/game/{id}/turn";
+
+    private final WebSocketStompClient stompClient;
+    private final String wsUrl;
+    private final LatencyRecorder latencies;
+    private final Map<String, Long> turnSentAt = new ConcurrentHashMap<>();
+
+    public BroadcastProbe(String baseUrl, LatencyRecorder latencies) {
+        this.stompClient = new WebSocketStompClient(
+            new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        this.stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        this.wsUrl = baseUrl + "/api/ws";
+        this.latencies = latencies;
+    }
+
+    public StompSession connect(UUID gameId) throws Exception {
+        long start = System.nanoTime();
+        StompSession session = stompClient.connectAsync(wsUrl, new StompSessionHandlerAdapter() {
+        }).get(30, TimeUnit.SECONDS);
+        latencies.record("STOMP CONNECT /ws", System.nanoTime() - start);
+        session.subscribe("/topic/game/" + gameId + "/turn", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                Object turnIndex = ((Map<?, ?>) payload).get("currentTurnIndex");
+                Long sentAt = turnSentAt.get(gameId + ":" + turnIndex);
+                if (sentAt != null) {
+                    latencies.record(TURN_DELIVERY, System.nanoTime() - sentAt);
+                }
+            }
+        });
+        return session;
+    }
+
+    /**
+     * Marks the moment the host asks for {@code turnIndex}, before the request is sent.
+     */
+    public void turnRequested(UUID gameId, int turnIndex) {
+        turnSentAt.put(gameId + ":" + turnIndex, System.nanoTime());
+    }
+
+    public void stop() {
+        stompClient.stop();
+    }
+}
@@ -0,0 +1,87 @@
+package com.whoisthespy.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Thin client for the REST API that records the latency of every call under its endpoint name.
+ */
+public class GameApiClient {
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String apiUrl;
+    private final LatencyRecorder latencies;
+
+    public GameApiClient(String baseUrl, LatencyRecorder latencies) {
+        this.apiUrl = baseUrl + "/api";
+        this.latencies = latencies;
+    }
+
+    public UUID createUser(String username) {
+        return UUID.fromString(post("POST /users", "/users", Map.of("username", username)).get("id").asText());
+    }
+
+    public JsonNode createGame(UUID hostUserId) {
+        return post("POST /game/create", "/game/create", Map.of("hostUserId", hostUserId));
+    }
+
+    public JsonNode joinGame(String joinCode, UUID userId) {
+        return post("POST /game/join", "/game/join", Map.of("joinCode", joinCode, "userId", userId));
+    }
+
+    public JsonNode startGame(UUID gameId, UUID hostUserId, int numberOfSpies) {
+        return post("POST /game/start", "/game/start",
+            Map.of("gameId", gameId, "hostUserId", hostUserId, "numberOfSpies", numberOfSpies));
+    }
+
+    public JsonNode nextTurn(UUID gameId, UUID hostUserId) {
+        return post("POST /game/{id}/nextTurn", "/game/" + gameId + "/nextTurn", Map.of("hostUserId", hostUserId));
+    }
+
+    public JsonNode getGame(UUID gameId) {
+        return send("GET /game/{id}", HttpRequest.newBuilder(URI.create(apiUrl + "/game/" + gameId)).GET().build());
+    }
+
+    private JsonNode post(String operation, String path, Object body) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+            return send(operation, request);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode request for " + operation, e);
+        }
+    }
+
+    private JsonNode send(String operation, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            if (response.statusCode() >= 400) {
+                latencies.recordError(operation);
+                throw new IllegalStateException(operation + " returned " + response.statusCode());
+            }
+            latencies.record(operation, elapsed);
+            return response.body().isEmpty() ? null : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            latencies.recordError(operation);
+            throw new IllegalStateException(operation + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(operation + " interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.whoisthespy.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects latency samples per operation and reports percentiles.
+ */
+public class LatencyRecorder {
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String operation, long nanos) {
+        samples.computeIfAbsent(operation, name -> new Samples()).add(nanos);
+    }
+
+    public Map<String, Summary> summarize() {
+        Map<String, Summary> summaries = new TreeMap<>();
+        samples.forEach((operation, recorded) -> summaries.put(operation, recorded.summarize()));
+        return summaries;
+    }
+
+    public void recordError(String operation) {
+        samples.computeIfAbsent(operation, name -> new Samples()).error();
+    }
+
+    public record Summary(int count, double p50Millis, double p99Millis, double maxMillis, int errors) {
+    }
+
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private int errors;
+
+        synchronized void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        synchronized void error() {
+            errors++;
+        }
+
+        synchronized Summary summarize() {
+            if (size == 0) {
+                return new Summary(0, 0, 0, 0, errors);
+            }
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return new Summary(size, millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                millis(sorted[size - 1]), errors);
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.whoisthespy.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.whoisthespy.WhoIsTheSpyApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Simulates {@code rooms x players} against the REST and SockJS/STOMP endpoints.
+ * <p>
+ * Without {@code --base-url} the backend is started in-process against an embedded PostgreSQL, so
+ * SQL statement counts can be read from Hibernate statistics. The scenario runs in phases (users,
+ * create, join, connect, start, load, turns) across all rooms at once; statement counts are
+ * attributed to the phase they were issued in. The report is printed and written to
+ * {@code target/loadtest-report-<threading>.json}.
+ * <p>
+ * {@code --threading=compare} runs the same scenario against a platform-thread and a virtual-thread
+ * backend and writes both throughputs to {@code target/loadtest-comparison.json}; use
+ * {@code --turn-interval-ms=0} so that throughput is not bounded by the turn cadence.
+ */
+public class LoadTestMain {
+    private final LoadTestOptions options;
+    private final String threading;
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final Map<String, Long> statementsByPhase = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private Statistics statistics;
+
+    private LoadTestMain(LoadTestOptions options, String threading) {
+        this.options = options;
+        this.threading = threading;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (!options.threading().equals("compare")) {
+            new LoadTestMain(options, options.threading()).run();
+            return;
+        }
+        Map<String, Object> comparison = new LinkedHashMap<>();
+        for (String threading : List.of("platform", "virtual")) {
+            comparison.put(threading, new LoadTestMain(options, threading).run().get("requestsPerSecond"));
+        }
+        System.out.println("\nRequests per second: " + comparison);
+        write("target/loadtest-comparison.json", comparison);
+    }
+
+    private Map<String, Object> run() throws Exception {
+        EmbeddedPostgres postgres = null;
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.baseUrl();
+        if (options.embedded()) {
+            postgres = EmbeddedPostgres.builder().start();
+            context = startBackend(postgres);
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        }
+
+        GameApiClient api = new GameApiClient(baseUrl, latencies);
+        BroadcastProbe probe = new BroadcastProbe(baseUrl, latencies);
+        long started = System.nanoTime();
+        try {
+            simulate(api, probe);
+            return report((System.nanoTime() - started) / 1_000_000_000.0);
+        } finally {
+            probe.stop();
+            executor.shutdownNow();
+            if (context != null) {
+                context.close();
+            }
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startBackend(EmbeddedPostgres postgres) {
+        return new SpringApplicationBuilder(WhoIsTheSpyApplication.class).run(
+            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+            "--spring.datasource.username=postgres",
+            "--spring.datasource.password=",
+            "--server.port=0",
+            "--spring.threads.virtual.enabled=" + threading.equals("virtual"),
+            "--app.jdbc.max-concurrency=" + options.jdbcConcurrency(),
+            "--spring.jpa.properties.hibernate.generate_statistics=true",
+            "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+            "--logging.level.com.whoisthespy=INFO");
+    }
+
+    private void simulate(GameApiClient api, BroadcastProbe probe) throws Exception {
+        int rooms = options.rooms();
+        int players = options.playersPerRoom();
+        UUID[][] userIds = new UUID[rooms][players];
+        UUID[] gameIds = new UUID[rooms];
+        String[] joinCodes = new String[rooms];
+        ConcurrentLinkedQueue<StompSession> openSessions = new ConcurrentLinkedQueue<>();
+
+        phase("users", rooms, room -> {
+            for (int player = 0; player < players; player++) {
+                userIds[room][player] = api.createUser("load-" + room + "-" + player + "-" + UUID.randomUUID());
+            }
+        });
+        phase("create", rooms, room -> {
+            JsonNode game = api.createGame(userIds[room][0]);
+            gameIds[room] = UUID.fromString(game.get("id").asText());
+            joinCodes[room] = game.get("joinCode").asText();
+        });
+        phase("join", rooms * (players - 1), task -> {
+            int room = task / (players - 1);
+            api.joinGame(joinCodes[room], userIds[room][task % (players - 1) + 1]);
+        });
+        phase("connect", rooms * players, task -> {
+            try {
+                openSessions.add(probe.connect(gameIds[task / players]));
+            } catch (Exception e) {
+                latencies.recordError("STOMP CONNECT /ws");
+            }
+        });
+        phase("start", rooms, room -> api.startGame(gameIds[room], userIds[room][0], 1));
+        phase("load", rooms * players, task -> api.getGame(gameIds[task / players]));
+        phase("turns", rooms, room -> {
+            for (int turn = 1; turn <= options.turns(); turn++) {
+                sleepAroundInterval();
+                probe.turnRequested(gameIds[room], turn);
+                api.nextTurn(gameIds[room], userIds[room][0]);
+            }
+        });
+
+        openSessions.forEach(StompSession::disconnect);
+    }
+
+    /**
+     * Runs {@code tasks} in parallel and records the SQL statements issued while they ran.
+     */
+    private void phase(String name, int tasks, IntConsumer task) throws Exception {
+        long statementsBefore = statementCount();
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                try {
+                    task.accept(index);
+                } catch (RuntimeException e) {
+                    // The failure has been recorded against its operation; keep the phase going
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        if (statistics != null) {
+            statementsByPhase.put(name, statementCount() - statementsBefore);
+        }
+        System.out.printf("phase %-8s done (%d tasks)%n", name, tasks);
+    }
+
+    private long statementCount() {
+        return statistics == null ? 0 : statistics.getPrepareStatementCount();
+    }
+
+    private void sleepAroundInterval() {
+        long interval = options.turnIntervalMs();
+        long jitter = interval / 4;
+        long delay = interval + (jitter == 0 ? 0 : ThreadLocalRandom.current().nextLong(-jitter, jitter + 1));
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted between turns", e);
+        }
+    }
+
+    private Map<String, Object> report(double elapsedSeconds) throws Exception {
+        Map<String, LatencyRecorder.Summary> summaries = latencies.summarize();
+        System.out.printf("%n[%s threads]%n", threading);
+        System.out.printf("%-36s %8s %8s %10s %10s %10s%n", "operation", "count", "errors", "p50 ms", "p99 ms", "max ms");
+        summaries.forEach((operation, summary) -> System.out.printf("%-36s %8d %8d %10.2f %10.2f %10.2f%n",
+            operation, summary.count(), summary.errors(), summary.p50Millis(), summary.p99Millis(), summary.maxMillis()));
+        if (!statementsByPhase.isEmpty()) {
+            System.out.printf("%n%-36s %12s%n", "phase", "statements");
+            statementsByPhase.forEach((phase, count) -> System.out.printf("%-36s %12d%n", phase, count));
+        }
+
+        long requests = summaries.entrySet().stream()
+            .filter(entry -> entry.getKey().startsWith("GET ") || entry.getKey().startsWith("POST "))
+            .mapToLong(entry -> entry.getValue().count())
+            .sum();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", options);
+        report.put("threading", threading);
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("requestsPerSecond", requests / elapsedSeconds);
+        report.put("latencies", summaries);
+        report.put("statementsByPhase", statementsByPhase);
+        write("target/loadtest-report-" + threading + ".json", report);
+        return report;
+    }
+
+    private static void write(String path, Object value) throws Exception {
+        File output = new File(path);
+        output.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, value);
+        System.out.println("Report written to " + output.getPath());
+    }
+}
@@ -0,0 +1,55 @@
+package com.whoisthespy.loadtest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}.
+ *
+ * @param rooms          number of concurrent game rooms
+ * @param playersPerRoom players per room, including the host
+ * @param turns          turns the host advances in every room
+ * @param turnIntervalMs mean delay between two turns in a room
+ * @param baseUrl        backend to drive; when empty an embedded backend and PostgreSQL are started
+ * @param threading      execution mode of the embedded backend: {@code platform}, {@code virtual},
+ *                       or {@code compare} to run the scenario once in each mode
+ * @param jdbcConcurrency JDBC concurrency limit applied to the embedded backend (0 = unlimited)
+ */
+public record LoadTestOptions(int rooms, int playersPerRoom, int turns, long turnIntervalMs, String baseUrl,
+                              String threading, int jdbcConcurrency) {
+
+    public LoadTestOptions {
+        if (rooms < 1 || playersPerRoom < 2 || turns < 0 || turnIntervalMs < 0) {
+            throw new IllegalArgumentException("Need at least one room, two players per room and non-negative turns");
+        }
+        if (!List.of("platform", "virtual", "compare").contains(threading)) {
+            throw new IllegalArgumentException("Unknown threading mode: " + threading);
+        }
+        if (!baseUrl.isEmpty() && !threading.equals("platform")) {
+            throw new IllegalArgumentException("Threading modes only apply to the embedded backend");
+        }
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return new LoadTestOptions(
+            Integer.parseInt(values.getOrDefault("rooms", "100")),
+            Integer.parseInt(values.getOrDefault("players", "8")),
+            Integer.parseInt(values.getOrDefault("turns", "20")),
+            Long.parseLong(values.getOrDefault("turn-interval-ms", "2000")),
+            values.getOrDefault("base-url", ""),
+            values.getOrDefault("threading", "platform"),
+            Integer.parseInt(values.getOrDefault("jdbc-concurrency", "0"))
+        );
+    }
+
+    public boolean embedded() {
+        return baseUrl.isEmpty();
+    }
+}
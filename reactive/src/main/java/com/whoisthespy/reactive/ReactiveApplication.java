@@ -0,0 +1,15 @@
+package com.whoisthespy.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Non-blocking variant of the game API, on WebFlux and R2DBC against the schema migrated by the
+ * backend. Meant for the polling and join-burst endpoints; see the README for what it leaves out.
+ */
+@SpringBootApplication
+public class ReactiveApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveApplication.class, args);
+    }
+}
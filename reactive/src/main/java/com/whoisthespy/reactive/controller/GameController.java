@@ -0,0 +1,104 @@
+package com.whoisthespy.reactive.controller;
+
+import com.whoisthespy.controller.GameController.CreateGameRequest;
+import com.whoisthespy.controller.GameController.GameResponse;
+import com.whoisthespy.controller.GameController.GenerateNameRequest;
+import com.whoisthespy.controller.GameController.JoinGameRequest;
+import com.whoisthespy.controller.GameController.NameResponse;
+import com.whoisthespy.controller.GameController.NextTurnRequest;
+import com.whoisthespy.controller.GameController.StartGameRequest;
+import com.whoisthespy.reactive.service.ReactiveGameService;
+import com.whoisthespy.service.PlayerGameView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * The {@code /game} endpoints of the backend, served without blocking. Request and response
+ * bodies are the backend's. Game events are not broadcast; clients poll {@code /game/{id}/view}.
+ */
+@RestController
+@RequestMapping("/game")
+@RequiredArgsConstructor
+public class GameController {
+    private final ReactiveGameService gameService;
+
+    @PostMapping("/create")
+    public Mono<ResponseEntity<GameResponse>> createGame(@RequestBody CreateGameRequest request) {
+        return gameService.createGame(request.getHostUserId())
+            .map(game -> ResponseEntity.status(HttpStatus.CREATED).body(new GameResponse(game)))
+            .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @PostMapping("/join")
+    public Mono<ResponseEntity<GameResponse>> joinGame(@RequestBody JoinGameRequest request) {
+        return gameService.joinGame(request.getJoinCode(), request.getUserId())
+            .map(game -> ResponseEntity.ok(new GameResponse(game)))
+            .onErrorResume(GameController::isRuleViolation, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    /**
+     * Starts a game. Turn timers are not supported here, so {@code turnSeconds} is rejected.
+     */
+    @PostMapping("/start")
+    public Mono<ResponseEntity<GameResponse>> startGame(@RequestBody StartGameRequest request) {
+        if (request.getTurnSeconds() != null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return gameService.startGame(request.getGameId(), request.getHostUserId(), request.getNumberOfSpies())
+            .map(game -> ResponseEntity.ok(new GameResponse(game)))
+            .onErrorResume(GameController::isRuleViolation, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @GetMapping("/{gameId}")
+    public Mono<ResponseEntity<GameResponse>> getGame(@PathVariable UUID gameId) {
+        return gameService.getGame(gameId)
+            .map(game -> ResponseEntity.ok(new GameResponse(game)))
+            .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    /**
+     * Compact view for one player, including only their own role and word. Responds with
+     * 304 Not Modified when the client's ETag still matches the game's revision.
+     */
+    @GetMapping("/{gameId}/view")
+    public Mono<ResponseEntity<PlayerGameView>> getPlayerView(
+            @PathVariable UUID gameId,
+            @RequestParam UUID userId,
+            ServerWebExchange exchange) {
+        return gameService.getPlayerView(gameId, userId)
+            .map(view -> exchange.checkNotModified(view.getRevision())
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).<PlayerGameView>build()
+                : ResponseEntity.ok().eTag(view.getRevision()).body(view))
+            .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    @PostMapping("/{gameId}/nextTurn")
+    public Mono<ResponseEntity<GameResponse>> nextTurn(
+            @PathVariable UUID gameId,
+            @RequestBody NextTurnRequest request) {
+        return gameService.nextTurn(gameId, request.getHostUserId())
+            .map(game -> ResponseEntity.ok(new GameResponse(game)))
+            .onErrorResume(GameController::isRuleViolation, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @PostMapping("/{gameId}/generateName")
+    public Mono<ResponseEntity<NameResponse>> generateName(
+            @PathVariable UUID gameId,
+            @RequestBody GenerateNameRequest request) {
+        return gameService.generateNewName(gameId, request.getHostUserId())
+            .map(game -> ResponseEntity.ok(new NameResponse(game.getGeneratedName(), game.getGeneratedSummary())))
+            // Only the host check rejects with IllegalStateException
+            .onErrorResume(IllegalStateException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build()))
+            .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    private static boolean isRuleViolation(Throwable e) {
+        return e instanceof IllegalArgumentException || e instanceof IllegalStateException;
+    }
+}
@@ -0,0 +1,184 @@
+package com.whoisthespy.reactive.repository;
+
+import com.whoisthespy.entity.Game;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Game persistence over R2DBC, on the tables of the backend's Flyway schema. A game is read with
+ * its players, spies and eliminations in one statement, as arrays.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveGameRepository {
+    private static final String SELECT_GAME = """
+        SELECT g.id, g.join_code, g.host_user_id, g.number_of_spies, g.current_turn_index,
+               g.civilian_word, g.spy_word, g.generated_name, g.generated_summary, g.game_state,
+               g.vote_round, g.winner, g.version, g.last_activity_at, g.finished_at,
+               ARRAY(SELECT p.user_id FROM game_players p WHERE p.game_id = g.id ORDER BY p.seat_index) AS players,
+               ARRAY(SELECT s.user_id FROM game_spies s WHERE s.game_id = g.id) AS spies,
+               ARRAY(SELECT e.user_id FROM game_eliminations e WHERE e.game_id = g.id) AS eliminated
+        FROM games g
+        WHERE g.id = :id
+        """;
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Game> findById(UUID id) {
+        return databaseClient.sql(SELECT_GAME)
+            .bind("id", id)
+            .map(ReactiveGameRepository::toGame)
+            .one();
+    }
+
+    /**
+     * Reads a game and locks its row until the end of the transaction.
+     */
+    public Mono<Game> findByIdForUpdate(UUID id) {
+        return databaseClient.sql(SELECT_GAME + " FOR UPDATE OF g")
+            .bind("id", id)
+            .map(ReactiveGameRepository::toGame)
+            .one();
+    }
+
+    public Mono<UUID> findLiveGameIdByJoinCode(String joinCode) {
+        return databaseClient.sql("SELECT id FROM games WHERE join_code = :joinCode AND game_state <> 'FINISHED'")
+            .bind("joinCode", joinCode)
+            .map(row -> row.get("id", UUID.class))
+            .one();
+    }
+
+    public Mono<Boolean> userExists(UUID userId) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM users WHERE id = :id) AS found")
+            .bind("id", userId)
+            .map(row -> row.get("found", Boolean.class))
+            .one();
+    }
+
+    public Mono<Long> nextJoinCodeBlock() {
+        return databaseClient.sql("SELECT nextval('join_code_block_seq') AS block")
+            .map(row -> row.get("block", Long.class))
+            .one();
+    }
+
+    /**
+     * Inserts a new game with its host in the first seat, in one statement; returns the generated id.
+     */
+    public Mono<UUID> insert(Game game) {
+        return databaseClient.sql("""
+                WITH g AS (
+                    INSERT INTO games (join_code, host_user_id, current_turn_index, game_state)
+                    VALUES (:joinCode, :hostUserId, 0, :gameState)
+                    RETURNING id
+                ), p AS (
+                    INSERT INTO game_players (game_id, user_id, seat_index) SELECT id, :hostUserId, 0 FROM g
+                )
+                SELECT id FROM g
+                """)
+            .bind("joinCode", game.getJoinCode())
+            .bind("hostUserId", game.getHostUserId())
+            .bind("gameState", game.getGameState().name())
+            .map(row -> row.get("id", UUID.class))
+            .one();
+    }
+
+    /**
+     * Locks a game for a joining player and records the activity; returns the game's state, or
+     * empty if it does not exist. Concurrent joins queue on the row lock instead of retrying.
+     */
+    public Mono<Game.GameState> lockForJoin(UUID gameId) {
+        return databaseClient.sql("""
+                UPDATE games SET version = version + 1, last_activity_at = CURRENT_TIMESTAMP
+                WHERE id = :id
+                RETURNING game_state
+                """)
+            .bind("id", gameId)
+            .map(row -> Game.GameState.valueOf(row.get("game_state", String.class)))
+            .one();
+    }
+
+    /**
+     * Seats a player after the last one; a player already in the game keeps their seat.
+     */
+    public Mono<Void> insertPlayer(UUID gameId, UUID userId) {
+        return databaseClient.sql("""
+                INSERT INTO game_players (game_id, user_id, seat_index)
+                SELECT :gameId, :userId, COALESCE(MAX(seat_index) + 1, 0) FROM game_players WHERE game_id = :gameId
+                ON CONFLICT DO NOTHING
+                """)
+            .bind("gameId", gameId)
+            .bind("userId", userId)
+            .then();
+    }
+
+    public Mono<Void> insertSpies(UUID gameId, Set<UUID> userIds) {
+        return databaseClient.sql("INSERT INTO game_spies (game_id, user_id) SELECT :gameId, unnest(:userIds)")
+            .bind("gameId", gameId)
+            .bind("userIds", userIds.toArray(new UUID[0]))
+            .then();
+    }
+
+    /**
+     * Writes the scalar state of a game read in the same transaction. Fails with
+     * {@link IllegalStateException} if the game changed since it was read.
+     */
+    public Mono<Void> updateState(Game game) {
+        return databaseClient.sql("""
+                UPDATE games SET number_of_spies = :numberOfSpies, current_turn_index = :currentTurnIndex,
+                    civilian_word = :civilianWord, spy_word = :spyWord, generated_name = :generatedName,
+                    generated_summary = :generatedSummary, game_state = :gameState,
+                    last_activity_at = CURRENT_TIMESTAMP, version = version + 1
+                WHERE id = :id AND version = :version
+                """)
+            .bind("id", game.getId())
+            .bind("version", game.getVersion())
+            .bind("numberOfSpies", Parameters.in(R2dbcType.INTEGER, game.getNumberOfSpies()))
+            .bind("currentTurnIndex", game.getCurrentTurnIndex())
+            .bind("civilianWord", Parameters.in(R2dbcType.VARCHAR, game.getCivilianWord()))
+            .bind("spyWord", Parameters.in(R2dbcType.VARCHAR, game.getSpyWord()))
+            .bind("generatedName", Parameters.in(R2dbcType.VARCHAR, game.getGeneratedName()))
+            .bind("generatedSummary", Parameters.in(R2dbcType.VARCHAR, game.getGeneratedSummary()))
+            .bind("gameState", game.getGameState().name())
+            .fetch()
+            .rowsUpdated()
+            .flatMap(updated -> updated == 0
+                ? Mono.<Void>error(new IllegalStateException("Game was modified concurrently: " + game.getId()))
+                : Mono.<Void>empty());
+    }
+
+    private static Game toGame(Readable row) {
+        Game game = new Game();
+        game.setId(row.get("id", UUID.class));
+        game.setJoinCode(row.get("join_code", String.class));
+        game.setHostUserId(row.get("host_user_id", UUID.class));
+        game.setNumberOfSpies(row.get("number_of_spies", Integer.class));
+        game.setCurrentTurnIndex(row.get("current_turn_index", Integer.class));
+        game.setCivilianWord(row.get("civilian_word", String.class));
+        game.setSpyWord(row.get("spy_word", String.class));
+        game.setGeneratedName(row.get("generated_name", String.class));
+        game.setGeneratedSummary(row.get("generated_summary", String.class));
+        game.setGameState(Game.GameState.valueOf(row.get("game_state", String.class)));
+        game.setVoteRound(row.get("vote_round", Integer.class));
+        String winner = row.get("winner", String.class);
+        game.setWinner(winner != null ? Game.Winner.valueOf(winner) : null);
+        game.setVersion(row.get("version", Long.class));
+        game.setLastActivityAt(row.get("last_activity_at", LocalDateTime.class));
+        game.setFinishedAt(row.get("finished_at", LocalDateTime.class));
+        game.setPlayers(new ArrayList<>(Arrays.asList(row.get("players", UUID[].class))));
+        game.setSpyUserIds(new HashSet<>(Arrays.asList(row.get("spies", UUID[].class))));
+        game.setEliminatedUserIds(new HashSet<>(Arrays.asList(row.get("eliminated", UUID[].class))));
+        return game;
+    }
+}
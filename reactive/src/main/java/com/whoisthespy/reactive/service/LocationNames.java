@@ -0,0 +1,49 @@
+package com.whoisthespy.reactive.service;
+
+import com.whoisthespy.service.GameRules;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-memory copy of the location names in {@code game_names}, loaded at startup, so that starting
+ * a game picks its name without a query.
+ */
+@Component
+@Slf4j
+public class LocationNames {
+    private final DatabaseClient databaseClient;
+
+    private volatile List<String> names = List.of();
+
+    public LocationNames(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        databaseClient.sql("SELECT name FROM game_names WHERE category = :category")
+            .bind("category", GameRules.LOCATION_CATEGORY)
+            .map(row -> row.get("name", String.class))
+            .all()
+            .collectList()
+            .subscribe(loaded -> names = List.copyOf(loaded),
+                e -> log.warn("Could not load location names: {}", e.getMessage()));
+    }
+
+    /**
+     * Picks a random location name, or {@code null} if none are loaded.
+     */
+    public String pick() {
+        List<String> current = names;
+        if (current.isEmpty()) {
+            return null;
+        }
+        return current.get(ThreadLocalRandom.current().nextInt(current.size()));
+    }
+}
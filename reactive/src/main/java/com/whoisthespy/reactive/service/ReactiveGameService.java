@@ -0,0 +1,148 @@
+package com.whoisthespy.reactive.service;
+
+import com.whoisthespy.entity.Game;
+import com.whoisthespy.reactive.repository.ReactiveGameRepository;
+import com.whoisthespy.service.GameRules;
+import com.whoisthespy.service.PlayerGameView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of the backend's game operations, validated by the same
+ * {@link GameRules}. Every operation reads and writes the database directly: there is no
+ * in-memory game state, so mutations serialize on the game's row lock.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveGameService {
+    private static final int MAX_JOIN_CODE_ATTEMPTS = 3;
+
+    private final ReactiveGameRepository gameRepository;
+    private final ReactiveJoinCodeAllocator joinCodeAllocator;
+    private final LocationNames locationNames;
+
+    public Mono<Game> createGame(UUID hostUserId) {
+        return requireUser(hostUserId, "Host user not found: ")
+            // Allocated codes are unique; a clash is only possible with codes issued before the allocator
+            .then(Mono.defer(() -> joinCodeAllocator.allocate().flatMap(joinCode -> {
+                Game game = new Game();
+                game.setJoinCode(joinCode);
+                game.setHostUserId(hostUserId);
+                game.setPlayers(new ArrayList<>(List.of(hostUserId)));
+                game.setGameState(Game.GameState.WAITING);
+                return gameRepository.insert(game);
+            })))
+            .retryWhen(Retry.max(MAX_JOIN_CODE_ATTEMPTS - 1)
+                .filter(DataIntegrityViolationException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+            .flatMap(this::getGame);
+    }
+
+    @Transactional
+    public Mono<Game> joinGame(String joinCode, UUID userId) {
+        return gameRepository.findLiveGameIdByJoinCode(joinCode)
+            .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Game not found with join code: " + joinCode)))
+            .flatMap(gameId -> requireUser(userId, "User not found: ")
+                .then(gameRepository.lockForJoin(gameId))
+                .flatMap(state -> {
+                    GameRules.checkJoinable(state);
+                    return gameRepository.insertPlayer(gameId, userId);
+                })
+                .then(gameRepository.findById(gameId)));
+    }
+
+    @Transactional
+    public Mono<Game> startGame(UUID gameId, UUID hostUserId, Integer numberOfSpies) {
+        return lockGame(gameId).flatMap(game -> {
+            GameRules.checkHost(game.getHostUserId(), hostUserId, "start the game");
+            GameRules.checkStartable(game.getGameState(), numberOfSpies, game.getPlayers().size());
+
+            assignLocation(game);
+
+            Random random = new Random();
+            game.setCivilianWord(GameRules.civilianWord(random));
+            game.setSpyWord(GameRules.spyWord(random));
+            game.setSpyUserIds(GameRules.pickSpies(game.getPlayers(), numberOfSpies));
+            game.setNumberOfSpies(numberOfSpies);
+
+            game.setGameState(Game.GameState.RUNNING);
+            game.setCurrentTurnIndex(0);
+            return gameRepository.updateState(game)
+                .then(gameRepository.insertSpies(gameId, game.getSpyUserIds()))
+                .then(Mono.fromSupplier(() -> versioned(game)));
+        });
+    }
+
+    @Transactional
+    public Mono<Game> nextTurn(UUID gameId, UUID hostUserId) {
+        return lockGame(gameId).flatMap(game -> {
+            GameRules.checkHost(game.getHostUserId(), hostUserId, "advance turns");
+            GameRules.checkRunning(game.getGameState());
+
+            game.setCurrentTurnIndex(game.getCurrentTurnIndex() + 1);
+            return gameRepository.updateState(game).then(Mono.fromSupplier(() -> versioned(game)));
+        });
+    }
+
+    @Transactional
+    public Mono<Game> generateNewName(UUID gameId, UUID hostUserId) {
+        return lockGame(gameId).flatMap(game -> {
+            GameRules.checkHost(game.getHostUserId(), hostUserId, "generate a new name");
+
+            assignLocation(game);
+            return gameRepository.updateState(game).then(Mono.fromSupplier(() -> versioned(game)));
+        });
+    }
+
+    public Mono<Game> getGame(UUID gameId) {
+        return gameRepository.findById(gameId)
+            .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Game not found: " + gameId)));
+    }
+
+    /**
+     * Builds the view of a game for one player; its revision is the game's version.
+     */
+    public Mono<PlayerGameView> getPlayerView(UUID gameId, UUID userId) {
+        return getGame(gameId).map(game -> {
+            boolean player = game.getPlayers().contains(userId);
+            boolean spy = game.getSpyUserIds().contains(userId);
+            return new PlayerGameView(game.getId(), game.getJoinCode(), game.getHostUserId(), game.getPlayers(),
+                new ArrayList<>(game.getEliminatedUserIds()), game.getNumberOfSpies(), game.getCurrentTurnIndex(),
+                game.getGeneratedName(), game.getGameState(), game.getVoteRound(), game.getWinner(),
+                GameRules.role(game.getGameState(), player, spy),
+                GameRules.word(game.getGameState(), player, spy, game.getCivilianWord(), game.getSpyWord()),
+                "v" + game.getVersion());
+        });
+    }
+
+    private void assignLocation(Game game) {
+        String location = locationNames.pick();
+        game.setGeneratedName(location != null ? location : GameRules.FALLBACK_LOCATION);
+        game.setGeneratedSummary(location != null ? GameRules.LOCATION_SUMMARY : GameRules.FALLBACK_LOCATION_SUMMARY);
+    }
+
+    private Mono<Game> lockGame(UUID gameId) {
+        return gameRepository.findByIdForUpdate(gameId)
+            .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Game not found: " + gameId)));
+    }
+
+    private Mono<Void> requireUser(UUID userId, String message) {
+        return gameRepository.userExists(userId)
+            .flatMap(exists -> exists ? Mono.<Void>empty() : Mono.<Void>error(new IllegalArgumentException(message + userId)));
+    }
+
+    // updateState bumped the stored version
+    private static Game versioned(Game game) {
+        game.setVersion(game.getVersion() + 1);
+        return game;
+    }
+}
@@ -0,0 +1,54 @@
+package com.whoisthespy.reactive.service;
+
+import com.whoisthespy.reactive.repository.ReactiveGameRepository;
+import com.whoisthespy.service.GameRules;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out join codes from blocks of the shared {@code join_code_block_seq}, like the backend's
+ * allocator, without blocking: a caller that finds the current block used up reserves a new one.
+ * Every index comes from exactly one block, so codes stay unique across instances and both APIs.
+ */
+@Component
+public class ReactiveJoinCodeAllocator {
+    private final ReactiveGameRepository gameRepository;
+    private final int blockSize;
+
+    private final AtomicReference<Block> block = new AtomicReference<>(new Block(0, 0));
+
+    public ReactiveJoinCodeAllocator(ReactiveGameRepository gameRepository,
+                                     @Value("${app.join-codes.block-size:256}") int blockSize) {
+        this.gameRepository = gameRepository;
+        this.blockSize = blockSize;
+    }
+
+    public Mono<String> allocate() {
+        Block current = block.get();
+        long index = current.next.getAndIncrement();
+        if (index < current.end) {
+            return Mono.just(GameRules.joinCode(index % GameRules.JOIN_CODE_SPACE));
+        }
+        return gameRepository.nextJoinCodeBlock().map(reserved -> {
+            Block fresh = new Block(reserved * blockSize, (reserved + 1) * blockSize);
+            // The first index is ours either way; later callers use whichever block won the swap
+            long first = fresh.next.getAndIncrement();
+            block.compareAndSet(current, fresh);
+            return GameRules.joinCode(first % GameRules.JOIN_CODE_SPACE);
+        });
+    }
+
+    private static class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}